@@ -0,0 +1,232 @@
+/*
+ * *********************************************************
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - Tigers Mannheim
+ * Project: TIGERS - Sumatra
+ * Date: Oct 18, 2026
+ * *********************************************************
+ */
+package com.github.g3force.configurable.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.xml.stream.XMLStreamException;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.g3force.configurable.ConfigAnnotationProcessor;
+import com.github.g3force.configurable.ConfigChange;
+import com.github.g3force.configurable.ConfigClient;
+import com.github.g3force.configurable.ConfigRegistration;
+
+
+/**
+ * Benchmarks of the hot paths of configurable: registration, apply, override, load and save.
+ * <br>
+ * All benchmarks run against a generated class hierarchy (see {@link SyntheticClasses}). The state is shared
+ * between threads, so running with multiple threads (e.g. with {@link ConfigurableBenchmarkRunner}) measures
+ * the behavior under contention.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConfigurableBenchmark
+{
+	private static final String CATEGORY = "benchmark";
+	/** registrations per invocation of {@link #registerClass(Registration)}, each in a new category */
+	private static final int REGISTRATIONS = 20;
+
+	/** number of configurable fields of the leaf class */
+	@Param({ "10", "100" })
+	private int fieldCount;
+
+	/** number of classes in the hierarchy */
+	@Param({ "1", "5" })
+	private int depth;
+
+	/** number of spezis per field, in addition to the default spezi */
+	@Param({ "0", "4" })
+	private int speziCount;
+
+	private SyntheticClasses classes;
+	private Path dir;
+	private ConfigAnnotationProcessor cap;
+	private ConfigClient saveClient;
+	private Object instance;
+	private String spezi;
+	private Field overrideField;
+	private byte[][] configFiles;
+
+
+	@Setup(Level.Trial)
+	public void setup() throws Exception
+	{
+		classes = SyntheticClasses.generate(fieldCount, depth, speziCount);
+		dir = Files.createTempDirectory("configurable-benchmark-config");
+		instance = classes.newInstance();
+		spezi = classes.getSpezis().isEmpty() ? "" : classes.getSpezis().get(0);
+
+		cap = new ConfigAnnotationProcessor(CATEGORY);
+		cap.loadClass(classes.getLeaf(), false);
+		overrideField = classes.getStaticFields().get(0);
+
+		// two config files with different values, so that each load changes all values
+		configFiles = new byte[][] { createConfigFile(2.0), createConfigFile(3.0) };
+
+		saveClient = new ConfigClient(dir.toString(), "save");
+		saveClient.putClass(classes.getLeaf());
+		classes.setStaticFields(4.0);
+		saveClient.readClasses();
+	}
+
+
+	private byte[] createConfigFile(final double value) throws IOException, IllegalAccessException
+	{
+		ConfigClient cc = new ConfigClient(dir.toString(), "load");
+		cc.putClass(classes.getLeaf());
+		classes.setStaticFields(value);
+		cc.readClasses();
+		if (!cc.saveCurrentConfig())
+		{
+			throw new IllegalStateException("Could not create config file");
+		}
+		return Files.readAllBytes(Paths.get(cc.getPath(), cc.getName() + ".xml"));
+	}
+
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException
+	{
+		SyntheticClasses.deleteRecursively(dir);
+		classes.delete();
+	}
+
+	/**
+	 * Per thread state to alternate values
+	 */
+	@State(Scope.Thread)
+	public static class Counter
+	{
+		private int count;
+
+
+		int next()
+		{
+			return count++;
+		}
+	}
+
+
+	/**
+	 * New categories with a config file for {@link #registerClass(Registration)}.
+	 * Categories can not be removed again, so only a limited number is created per trial.
+	 */
+	@State(Scope.Thread)
+	public static class Registration
+	{
+		private static final AtomicInteger nextCategory = new AtomicInteger();
+		private final String[] categories = new String[REGISTRATIONS];
+
+
+		@Setup(Level.Iteration)
+		public void setup(final ConfigurableBenchmark benchmark) throws IOException
+		{
+			ConfigRegistration.setDefPath(benchmark.dir.toString());
+			for (int i = 0; i < categories.length; i++)
+			{
+				categories[i] = "register" + nextCategory.getAndIncrement();
+				Files.write(benchmark.dir.resolve(categories[i] + ".xml"), benchmark.configFiles[0]);
+			}
+		}
+	}
+
+
+	/**
+	 * Register the leaf class in a new category with {@link ConfigRegistration#registerClass(String, Class[])},
+	 * as it is done from the static initializer of the first class of a category.
+	 * This is a cold path, so every invocation measures a batch of registrations once.
+	 *
+	 * @param registration the categories to register in
+	 */
+	@Benchmark
+	@BenchmarkMode(Mode.SingleShotTime)
+	@Warmup(iterations = 5)
+	@Measurement(iterations = 10)
+	@OperationsPerInvocation(REGISTRATIONS)
+	public void registerClass(final Registration registration)
+	{
+		for (String category : registration.categories)
+		{
+			ConfigRegistration.registerClass(category, classes.getLeaf());
+		}
+	}
+
+
+	@Benchmark
+	public Object applySpezi()
+	{
+		cap.applySpezi(instance, spezi);
+		return instance;
+	}
+
+
+	@Benchmark
+	public Object applyAll()
+	{
+		cap.applyAll(instance);
+		return instance;
+	}
+
+
+	@Benchmark
+	public void applyAllStatic()
+	{
+		cap.applyAll();
+	}
+
+
+	@Benchmark
+	public void overrideField(final Counter counter)
+	{
+		cap.overrideField(overrideField.getDeclaringClass(), overrideField.getName(),
+				counter.next() % 2 == 0 ? "2.0" : "3.0");
+	}
+
+
+	@Benchmark
+	public List<ConfigChange> loadConfiguration(final Counter counter) throws XMLStreamException
+	{
+		byte[] file = configFiles[counter.next() % configFiles.length];
+		return cap.loadConfiguration(new ByteArrayInputStream(file));
+	}
+
+
+	@Benchmark
+	public boolean saveCurrentConfig()
+	{
+		return saveClient.saveCurrentConfig();
+	}
+}
@@ -0,0 +1,53 @@
+/*
+ * *********************************************************
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - Tigers Mannheim
+ * Project: TIGERS - Sumatra
+ * Date: Oct 18, 2026
+ * *********************************************************
+ */
+package com.github.g3force.configurable.benchmark;
+
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+
+/**
+ * Runs {@link ConfigurableBenchmark} once per thread count.
+ * <br>
+ * Usage: java -cp target/benchmarks.jar com.github.g3force.configurable.benchmark.ConfigurableBenchmarkRunner
+ * [thread counts...]
+ * <br>
+ * Without arguments, it runs with one thread and with one thread per core.
+ */
+public final class ConfigurableBenchmarkRunner
+{
+	private ConfigurableBenchmarkRunner()
+	{
+	}
+
+
+	public static void main(final String[] args) throws RunnerException
+	{
+		int[] threadCounts;
+		if (args.length == 0)
+		{
+			threadCounts = new int[] { 1, Runtime.getRuntime().availableProcessors() };
+		} else
+		{
+			threadCounts = new int[args.length];
+			for (int i = 0; i < args.length; i++)
+			{
+				threadCounts[i] = Integer.parseInt(args[i]);
+			}
+		}
+
+		for (int threads : threadCounts)
+		{
+			new Runner(new OptionsBuilder()
+					.include(ConfigurableBenchmark.class.getName())
+					.threads(threads)
+					.build()).run();
+		}
+	}
+}
@@ -0,0 +1,238 @@
+/*
+ * *********************************************************
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - Tigers Mannheim
+ * Project: TIGERS - Sumatra
+ * Date: Oct 18, 2026
+ * *********************************************************
+ */
+package com.github.g3force.configurable.benchmark;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+
+/**
+ * A hierarchy of configurable classes, generated and compiled at runtime.
+ * <br>
+ * The hierarchy has 'depth' levels, the leaf class extends all others. The configurable fields
+ * are distributed over the levels, alternating between static and instance fields.
+ * Each field has the spezis S0 to S{speziCount-1} in addition to the default spezi.
+ */
+final class SyntheticClasses
+{
+	static final String DEF_VALUE = "1.0";
+
+	private final Path dir;
+	private final URLClassLoader loader;
+	private final List<Class<?>> hierarchy;
+	private final List<Field> staticFields = new ArrayList<>();
+	private final List<String> spezis;
+
+
+	private SyntheticClasses(final Path dir, final URLClassLoader loader, final List<Class<?>> hierarchy,
+			final List<String> spezis)
+	{
+		this.dir = dir;
+		this.loader = loader;
+		this.hierarchy = Collections.unmodifiableList(hierarchy);
+		this.spezis = Collections.unmodifiableList(spezis);
+		for (Class<?> clazz : hierarchy)
+		{
+			for (Field field : clazz.getDeclaredFields())
+			{
+				if (Modifier.isStatic(field.getModifiers()))
+				{
+					staticFields.add(field);
+				}
+			}
+		}
+	}
+
+
+	/**
+	 * Generate, compile and load a class hierarchy
+	 *
+	 * @param fieldCount the number of configurable fields of the leaf class, including inherited ones
+	 * @param depth the number of classes in the hierarchy
+	 * @param speziCount the number of spezis per field, in addition to the default spezi
+	 * @return the loaded classes
+	 * @throws IOException if the sources can not be written
+	 * @throws ReflectiveOperationException if the compiled classes can not be loaded
+	 */
+	static SyntheticClasses generate(final int fieldCount, final int depth, final int speziCount)
+			throws IOException, ReflectiveOperationException
+	{
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		if (compiler == null)
+		{
+			throw new IllegalStateException("A JDK is required to generate the benchmark classes");
+		}
+		String pkg = "bench.f" + fieldCount + "d" + depth + "s" + speziCount;
+		List<String> spezis = new ArrayList<>();
+		for (int i = 0; i < speziCount; i++)
+		{
+			spezis.add("S" + i);
+		}
+
+		Path dir = Files.createTempDirectory("configurable-benchmark");
+		Path srcDir = Files.createDirectories(dir.resolve(pkg.replace('.', '/')));
+		List<String> files = new ArrayList<>();
+		for (int level = 0; level < depth; level++)
+		{
+			int from = fieldCount * level / depth;
+			int to = fieldCount * (level + 1) / depth;
+			Path file = srcDir.resolve(className(level) + ".java");
+			Files.write(file, source(pkg, level, from, to, spezis).getBytes(StandardCharsets.UTF_8));
+			files.add(file.toString());
+		}
+
+		List<String> args = new ArrayList<>(Arrays.asList(
+				"-proc:none", "-nowarn", "-d", dir.toString(), "-classpath", System.getProperty("java.class.path")));
+		args.addAll(files);
+		if (compiler.run(null, null, null, args.toArray(new String[0])) != 0)
+		{
+			throw new IllegalStateException("Could not compile the benchmark classes in " + dir);
+		}
+
+		URLClassLoader loader = new URLClassLoader(new URL[] { dir.toUri().toURL() },
+				SyntheticClasses.class.getClassLoader());
+		List<Class<?>> hierarchy = new ArrayList<>();
+		for (int level = 0; level < depth; level++)
+		{
+			hierarchy.add(Class.forName(pkg + "." + className(level), true, loader));
+		}
+		return new SyntheticClasses(dir, loader, hierarchy, spezis);
+	}
+
+
+	private static String className(final int level)
+	{
+		return "Level" + level;
+	}
+
+
+	private static String source(final String pkg, final int level, final int from, final int to,
+			final List<String> spezis)
+	{
+		StringBuilder sb = new StringBuilder();
+		sb.append("package ").append(pkg).append(";\n\n");
+		sb.append("import com.github.g3force.configurable.Configurable;\n\n");
+		sb.append("public class ").append(className(level));
+		if (level > 0)
+		{
+			sb.append(" extends ").append(className(level - 1));
+		}
+		sb.append("\n{\n");
+		for (int i = from; i < to; i++)
+		{
+			sb.append("\t@Configurable(");
+			if (spezis.isEmpty())
+			{
+				sb.append("defValue = \"").append(DEF_VALUE).append('"');
+			} else
+			{
+				sb.append("spezis = { \"\"");
+				spezis.forEach(spezi -> sb.append(", \"").append(spezi).append('"'));
+				sb.append(" }, defValueSpezis = { \"").append(DEF_VALUE).append('"');
+				spezis.forEach(spezi -> sb.append(", \"").append(DEF_VALUE).append('"'));
+				sb.append(" }");
+			}
+			sb.append(")\n");
+			sb.append("\tpublic ").append(i % 2 == 0 ? "static " : "").append("double field").append(i).append(";\n\n");
+		}
+		sb.append("}\n");
+		return sb.toString();
+	}
+
+
+	/**
+	 * @return the class that extends all others
+	 */
+	Class<?> getLeaf()
+	{
+		return hierarchy.get(hierarchy.size() - 1);
+	}
+
+
+	/**
+	 * @return a new instance of the leaf class
+	 * @throws ReflectiveOperationException if the instance can not be created
+	 */
+	Object newInstance() throws ReflectiveOperationException
+	{
+		return getLeaf().getDeclaredConstructor().newInstance();
+	}
+
+
+	/**
+	 * @return all static configurable fields
+	 */
+	List<Field> getStaticFields()
+	{
+		return staticFields;
+	}
+
+
+	/**
+	 * @return the spezis of all fields, without the default spezi
+	 */
+	List<String> getSpezis()
+	{
+		return spezis;
+	}
+
+
+	/**
+	 * Set all static fields to the given value
+	 *
+	 * @param value the new value
+	 * @throws IllegalAccessException if a field can not be set
+	 */
+	void setStaticFields(final double value) throws IllegalAccessException
+	{
+		for (Field field : staticFields)
+		{
+			field.setDouble(null, value);
+		}
+	}
+
+
+	/**
+	 * Close the class loader and delete the generated sources and classes
+	 *
+	 * @throws IOException if the files can not be deleted
+	 */
+	void delete() throws IOException
+	{
+		loader.close();
+		deleteRecursively(dir);
+	}
+
+
+	/**
+	 * @param path a file or directory to delete with all its content
+	 * @throws IOException if the directory can not be listed
+	 */
+	static void deleteRecursively(final Path path) throws IOException
+	{
+		try (Stream<Path> files = Files.walk(path))
+		{
+			files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+		}
+	}
+}
@@ -0,0 +1,395 @@
+/*
+ * *********************************************************
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - Tigers Mannheim
+ * Project: TIGERS - Sumatra
+ * Date: Oct 18, 2026
+ * *********************************************************
+ */
+package com.github.g3force.configurable.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.StandardLocation;
+
+
+/**
+ * Generates an {@code IConfigAccessor} for each class with {@code Configurable} fields.
+ * The generated class is named {@code <ClassName>_ConfigAccessor} (see {@link #getAccessorName(String)})
+ * and placed in the package of the class.
+ * It describes all configurable fields and provides setters and getters for all fields that are accessible
+ * from within the package. The runtime uses it instead of reflection, if it is present.
+ * <br>
+ * Additionally, the names of all configurable classes are written to {@value #MANIFEST},
+ * so that the runtime can resolve classes from config files without probing the class loader.
+ */
+@SupportedAnnotationTypes(ConfigurableProcessor.CONFIGURABLE)
+public class ConfigurableProcessor extends AbstractProcessor
+{
+	static final String CONFIGURABLE = "com.github.g3force.configurable.Configurable";
+	private static final String ACCESSOR_INTERFACE = "com.github.g3force.configurable.IConfigAccessor";
+	private static final String DESCRIPTOR = "com.github.g3force.configurable.ConfigFieldDescriptor";
+	private static final String ACCESSOR_SUFFIX = "_ConfigAccessor";
+	static final String MANIFEST = "META-INF/configurable/classes";
+
+	private final Set<String> configurableClasses = new LinkedHashSet<>();
+	private Elements elements;
+	private Types types;
+
+
+	@Override
+	public synchronized void init(final ProcessingEnvironment processingEnv)
+	{
+		super.init(processingEnv);
+		elements = processingEnv.getElementUtils();
+		types = processingEnv.getTypeUtils();
+	}
+
+
+	@Override
+	public SourceVersion getSupportedSourceVersion()
+	{
+		return SourceVersion.latestSupported();
+	}
+
+
+	@Override
+	public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv)
+	{
+		TypeElement configurable = elements.getTypeElement(CONFIGURABLE);
+		if (configurable == null)
+		{
+			return false;
+		}
+		if (roundEnv.processingOver())
+		{
+			writeManifest();
+			return false;
+		}
+
+		Map<TypeElement, List<VariableElement>> fieldsByClass = new LinkedHashMap<>();
+		for (Element element : roundEnv.getElementsAnnotatedWith(configurable))
+		{
+			if (element.getKind() != ElementKind.FIELD)
+			{
+				continue;
+			}
+			TypeElement clazz = (TypeElement) element.getEnclosingElement();
+			if ((clazz.getNestingKind() == NestingKind.LOCAL) || (clazz.getNestingKind() == NestingKind.ANONYMOUS))
+			{
+				warn(element, "Configurable fields in local or anonymous classes are not supported");
+				continue;
+			}
+			if (element.getModifiers().contains(Modifier.FINAL))
+			{
+				warn(element, "Configurable field must not be final");
+				continue;
+			}
+			fieldsByClass.computeIfAbsent(clazz, k -> new ArrayList<>()).add((VariableElement) element);
+		}
+
+		for (Map.Entry<TypeElement, List<VariableElement>> entry : fieldsByClass.entrySet())
+		{
+			configurableClasses.add(elements.getBinaryName(entry.getKey()).toString());
+			try
+			{
+				writeAccessor(entry.getKey(), entry.getValue());
+			} catch (IOException err)
+			{
+				processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+						"Could not write config accessor: " + err.getMessage(), entry.getKey());
+			}
+		}
+
+		// do not claim the annotation, other processors may be interested as well
+		return false;
+	}
+
+
+	/**
+	 * Get the accessor name for a class. In the class name, '_' is escaped as '__' and '$' of nested classes
+	 * is replaced by '_1', so that the name is unique (e.g. 'a.Outer$In' -> 'a.Outer_1In_ConfigAccessor'
+	 * and 'a.Outer_In' -> 'a.Outer__In_ConfigAccessor').
+	 *
+	 * @param binaryName the binary name of a configurable class
+	 * @return the binary name of the generated accessor
+	 */
+	static String getAccessorName(final String binaryName)
+	{
+		int pkgEnd = binaryName.lastIndexOf('.') + 1;
+		return binaryName.substring(0, pkgEnd)
+				+ binaryName.substring(pkgEnd).replace("_", "__").replace("$", "_1")
+				+ ACCESSOR_SUFFIX;
+	}
+
+
+	private void writeManifest()
+	{
+		if (configurableClasses.isEmpty())
+		{
+			return;
+		}
+		try (Writer w = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", MANIFEST)
+				.openWriter())
+		{
+			for (String className : configurableClasses)
+			{
+				w.append(className).append('\n');
+			}
+		} catch (IOException err)
+		{
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+					"Could not write configurable class manifest: " + err.getMessage());
+		}
+	}
+
+
+	private void writeAccessor(final TypeElement clazz, final List<VariableElement> fields) throws IOException
+	{
+		PackageElement pkg = elements.getPackageOf(clazz);
+		String accessorName = getAccessorName(elements.getBinaryName(clazz).toString());
+		String simpleName = pkg.isUnnamed() ? accessorName : accessorName.substring(pkg.getQualifiedName().length() + 1);
+		boolean classAccessible = isAccessible(clazz, pkg);
+
+		try (Writer w = processingEnv.getFiler().createSourceFile(accessorName, clazz).openWriter())
+		{
+			if (!pkg.isUnnamed())
+			{
+				w.append("package ").append(pkg.getQualifiedName()).append(";\n\n");
+			}
+			w.append("/**\n");
+			w.append(" * Generated by ").append(getClass().getName()).append(" for {@link ")
+					.append(clazz.getQualifiedName()).append("}. Do not edit.\n");
+			w.append(" */\n");
+			w.append("@SuppressWarnings({ \"unchecked\", \"rawtypes\" })\n");
+			w.append("public final class ").append(simpleName).append(" implements ").append(ACCESSOR_INTERFACE)
+					.append("\n{\n");
+			w.append("\tprivate static final java.util.List<").append(DESCRIPTOR).append("> FIELDS = ")
+					.append("java.util.Collections.unmodifiableList(java.util.Arrays.asList(");
+			String separator = "\n";
+			for (VariableElement field : fields)
+			{
+				w.append(separator);
+				writeDescriptor(w, clazz, field, classAccessible && isAccessible(field, pkg)
+						&& isAccessible(field.asType(), pkg));
+				separator = ",\n";
+			}
+			w.append("));\n\n\n");
+			w.append("\t@Override\n");
+			w.append("\tpublic String getClassName()\n");
+			w.append("\t{\n");
+			w.append("\t\treturn ").append(literal(elements.getBinaryName(clazz).toString())).append(";\n");
+			w.append("\t}\n\n\n");
+			w.append("\t@Override\n");
+			w.append("\tpublic java.util.List<").append(DESCRIPTOR).append("> getFields()\n");
+			w.append("\t{\n");
+			w.append("\t\treturn FIELDS;\n");
+			w.append("\t}\n");
+			w.append("}\n");
+		}
+	}
+
+
+	private void writeDescriptor(final Writer w, final TypeElement clazz, final VariableElement field,
+			final boolean accessible) throws IOException
+	{
+		Map<String, AnnotationValue> values = getConfigurableValues(field);
+		String name = field.getSimpleName().toString();
+		boolean isStatic = field.getModifiers().contains(Modifier.STATIC);
+		TypeMirror type = types.erasure(field.asType());
+
+		w.append("\t\t\tnew ").append(DESCRIPTOR).append("(");
+		w.append(literal(name)).append(", ");
+		w.append(accessible ? type.toString() + ".class" : "null").append(", ");
+		w.append(Boolean.toString(isStatic)).append(", ");
+		w.append(literal(getString(values, "comment"))).append(", ");
+		w.append(arrayLiteral(values.get("spezis"))).append(", ");
+		w.append(literal(getString(values, "defValue"))).append(", ");
+		w.append(arrayLiteral(values.get("defValueSpezis"))).append(", ");
+		w.append(literal(getString(values, "category"))).append(",\n");
+		if (accessible)
+		{
+			String target = isStatic ? clazz.getQualifiedName().toString()
+					: "((" + clazz.getQualifiedName() + ") obj)";
+			w.append("\t\t\t\t\t(obj, value) -> ").append(target).append(".").append(name)
+					.append(" = (").append(getBoxedName(type)).append(") value,\n");
+			w.append("\t\t\t\t\tobj -> ").append(target).append(".").append(name).append(")");
+		} else
+		{
+			note(field, "Configurable field is not accessible from generated code, reflection will be used");
+			w.append("\t\t\t\t\tnull, null)");
+		}
+	}
+
+
+	private Map<String, AnnotationValue> getConfigurableValues(final VariableElement field)
+	{
+		Map<String, AnnotationValue> values = new LinkedHashMap<>();
+		for (AnnotationMirror mirror : field.getAnnotationMirrors())
+		{
+			TypeElement annotationType = (TypeElement) mirror.getAnnotationType().asElement();
+			if (annotationType.getQualifiedName().contentEquals(CONFIGURABLE))
+			{
+				for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : elements
+						.getElementValuesWithDefaults(mirror).entrySet())
+				{
+					values.put(entry.getKey().getSimpleName().toString(), entry.getValue());
+				}
+			}
+		}
+		return values;
+	}
+
+
+	private String getString(final Map<String, AnnotationValue> values, final String key)
+	{
+		AnnotationValue value = values.get(key);
+		return value == null ? "" : value.getValue().toString();
+	}
+
+
+	private String arrayLiteral(final AnnotationValue value)
+	{
+		StringBuilder sb = new StringBuilder("new String[] {");
+		if (value != null)
+		{
+			String separator = " ";
+			for (Object element : (List<?>) value.getValue())
+			{
+				sb.append(separator).append(literal(((AnnotationValue) element).getValue().toString()));
+				separator = ", ";
+			}
+			if (!" ".equals(separator))
+			{
+				sb.append(' ');
+			}
+		}
+		return sb.append('}').toString();
+	}
+
+
+	private String getBoxedName(final TypeMirror type)
+	{
+		if (type.getKind().isPrimitive())
+		{
+			return types.boxedClass((PrimitiveType) type).getQualifiedName().toString();
+		}
+		return type.toString();
+	}
+
+
+	/**
+	 * Check if the given element can be accessed from generated code in the given package
+	 */
+	private boolean isAccessible(final Element element, final PackageElement pkg)
+	{
+		for (Element e = element; (e != null) && (e.getKind() != ElementKind.PACKAGE); e = e.getEnclosingElement())
+		{
+			Set<Modifier> modifiers = e.getModifiers();
+			if (modifiers.contains(Modifier.PRIVATE))
+			{
+				return false;
+			}
+			if (!modifiers.contains(Modifier.PUBLIC) && !elements.getPackageOf(e).equals(pkg))
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+
+	private boolean isAccessible(final TypeMirror type, final PackageElement pkg)
+	{
+		TypeMirror erased = types.erasure(type);
+		if (erased.getKind().isPrimitive())
+		{
+			return true;
+		}
+		switch (erased.getKind())
+		{
+			case ARRAY:
+				return isAccessible(((ArrayType) erased).getComponentType(), pkg);
+			case DECLARED:
+				return isAccessible(((DeclaredType) erased).asElement(), pkg);
+			default:
+				return false;
+		}
+	}
+
+
+	private String literal(final String str)
+	{
+		StringBuilder sb = new StringBuilder("\"");
+		for (char c : str.toCharArray())
+		{
+			switch (c)
+			{
+				case '"':
+					sb.append("\\\"");
+					break;
+				case '\\':
+					sb.append("\\\\");
+					break;
+				case '\n':
+					sb.append("\\n");
+					break;
+				case '\r':
+					sb.append("\\r");
+					break;
+				case '\t':
+					sb.append("\\t");
+					break;
+				default:
+					if (c < 0x20)
+					{
+						sb.append(String.format("\\u%04x", (int) c));
+					} else
+					{
+						sb.append(c);
+					}
+			}
+		}
+		return sb.append('"').toString();
+	}
+
+
+	private void warn(final Element element, final String msg)
+	{
+		processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, msg, element);
+	}
+
+
+	private void note(final Element element, final String msg)
+	{
+		processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE, msg, element);
+	}
+}
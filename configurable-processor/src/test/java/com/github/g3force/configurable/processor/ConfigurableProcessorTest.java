@@ -0,0 +1,195 @@
+/*
+ * *********************************************************
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - Tigers Mannheim
+ * Project: TIGERS - Sumatra
+ * Date: Oct 18, 2026
+ * *********************************************************
+ */
+package com.github.g3force.configurable.processor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.github.g3force.configurable.ConfigFieldDescriptor;
+import com.github.g3force.configurable.IConfigAccessor;
+
+
+/**
+ * Compiles a fixture with the {@link ConfigurableProcessor} and checks the generated accessors and manifest.
+ */
+public class ConfigurableProcessorTest
+{
+	private static final String FIXTURE = "package fixture;\n"
+			+ "import com.github.g3force.configurable.Configurable;\n"
+			+ "public class Fixture\n"
+			+ "{\n"
+			+ "	@Configurable(comment = \"a \\\"quoted\\\" comment\", defValue = \"2.0\")\n"
+			+ "	static double gain;\n"
+			+ "	@Configurable(spezis = { \"\", \"A\" }, defValueSpezis = { \"1\", \"2\" }, category = \"cat\")\n"
+			+ "	int count;\n"
+			+ "	@Configurable(defValue = \"x\")\n"
+			+ "	private static String hidden;\n"
+			+ "	public static class Inner\n"
+			+ "	{\n"
+			+ "		@Configurable(defValue = \"true\")\n"
+			+ "		static boolean flag;\n"
+			+ "	}\n"
+			+ "}\n";
+	/** top-level class with the name Fixture$Inner would get, if '$' was simply replaced by '_' */
+	private static final String FIXTURE_INNER = "package fixture;\n"
+			+ "import com.github.g3force.configurable.Configurable;\n"
+			+ "public class Fixture_Inner\n"
+			+ "{\n"
+			+ "	@Configurable(defValue = \"1\")\n"
+			+ "	static int other;\n"
+			+ "}\n";
+
+	private Path dir;
+	private Path out;
+	private List<Diagnostic<? extends JavaFileObject>> diagnostics;
+
+
+	@Before
+	public void compile() throws IOException
+	{
+		dir = Files.createTempDirectory("configurable-processor-test");
+		Path src = Files.createDirectories(dir.resolve("src/fixture"));
+		out = Files.createDirectories(dir.resolve("out"));
+		Path file = src.resolve("Fixture.java");
+		Files.write(file, FIXTURE.getBytes(StandardCharsets.UTF_8));
+		Path innerFile = src.resolve("Fixture_Inner.java");
+		Files.write(innerFile, FIXTURE_INNER.getBytes(StandardCharsets.UTF_8));
+
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		DiagnosticCollector<JavaFileObject> collector = new DiagnosticCollector<>();
+		try (StandardJavaFileManager fm = compiler.getStandardFileManager(collector, null, StandardCharsets.UTF_8))
+		{
+			JavaCompiler.CompilationTask task = compiler.getTask(null, fm, collector,
+					Arrays.asList("-d", out.toString(), "-s", out.toString(),
+							"-classpath", System.getProperty("java.class.path")),
+					null, fm.getJavaFileObjects(file.toFile(), innerFile.toFile()));
+			task.setProcessors(Collections.singletonList(new ConfigurableProcessor()));
+			boolean success = task.call();
+			diagnostics = collector.getDiagnostics();
+			assertThat(success).as(diagnostics.toString()).isTrue();
+		}
+	}
+
+
+	@After
+	public void cleanup() throws IOException
+	{
+		try (Stream<Path> files = Files.walk(dir))
+		{
+			files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+		}
+	}
+
+
+	@Test
+	public void testGeneratedSources() throws IOException
+	{
+		assertThat(out.resolve("fixture/Fixture_ConfigAccessor.java")).exists();
+		assertThat(out.resolve("fixture/Fixture_1Inner_ConfigAccessor.java")).exists();
+		assertThat(out.resolve("fixture/Fixture__Inner_ConfigAccessor.java")).exists();
+		String source = new String(Files.readAllBytes(out.resolve("fixture/Fixture_ConfigAccessor.java")),
+				StandardCharsets.UTF_8);
+		assertThat(source).contains("public final class Fixture_ConfigAccessor implements "
+				+ "com.github.g3force.configurable.IConfigAccessor");
+		assertThat(source).contains("fixture.Fixture.gain = (java.lang.Double) value");
+		assertThat(source).contains("((fixture.Fixture) obj).count = (java.lang.Integer) value");
+		assertThat(source).doesNotContain(".hidden");
+
+		assertThat(diagnostics.stream()
+				.filter(d -> d.getKind() == Diagnostic.Kind.NOTE)
+				.anyMatch(d -> d.getMessage(null).contains("not accessible from generated code"))).isTrue();
+	}
+
+
+	@Test
+	public void testManifest() throws IOException
+	{
+		List<String> classes = Files.readAllLines(out.resolve(ConfigurableProcessor.MANIFEST),
+				StandardCharsets.UTF_8);
+		assertThat(classes).containsExactlyInAnyOrder("fixture.Fixture", "fixture.Fixture$Inner",
+				"fixture.Fixture_Inner");
+	}
+
+
+	@Test
+	public void testGeneratedAccessor() throws Exception
+	{
+		try (URLClassLoader loader = new URLClassLoader(new URL[] { out.toUri().toURL() },
+				getClass().getClassLoader()))
+		{
+			Class<?> fixture = Class.forName("fixture.Fixture", true, loader);
+			IConfigAccessor accessor = (IConfigAccessor) Class.forName("fixture.Fixture_ConfigAccessor", true, loader)
+					.getDeclaredConstructor().newInstance();
+			assertThat(accessor.getClassName()).isEqualTo("fixture.Fixture");
+			Map<String, ConfigFieldDescriptor> fields = accessor.getFields().stream()
+					.collect(Collectors.toMap(ConfigFieldDescriptor::getName, Function.identity()));
+			assertThat(fields).containsOnlyKeys("gain", "count", "hidden");
+
+			ConfigFieldDescriptor gain = fields.get("gain");
+			assertThat(gain.isStatic()).isTrue();
+			assertThat(gain.getType()).isEqualTo(double.class);
+			assertThat(gain.getComment()).isEqualTo("a \"quoted\" comment");
+			assertThat(gain.getDefValue()).isEqualTo("2.0");
+			assertThat(gain.hasAccessors()).isTrue();
+			gain.getSetter().accept(null, 3.0);
+			assertThat(gain.getGetter().apply(null)).isEqualTo(3.0);
+
+			ConfigFieldDescriptor count = fields.get("count");
+			assertThat(count.isStatic()).isFalse();
+			assertThat(count.getSpezis()).containsExactly("", "A");
+			assertThat(count.getDefValueSpezis()).containsExactly("1", "2");
+			assertThat(count.getCategory()).isEqualTo("cat");
+			Object instance = fixture.getDeclaredConstructor().newInstance();
+			count.getSetter().accept(instance, 7);
+			assertThat(count.getGetter().apply(instance)).isEqualTo(7);
+
+			assertThat(fields.get("hidden").hasAccessors()).isFalse();
+		}
+	}
+
+
+	@Test
+	public void testAccessorNames() throws Exception
+	{
+		try (URLClassLoader loader = new URLClassLoader(new URL[] { out.toUri().toURL() },
+				getClass().getClassLoader()))
+		{
+			IConfigAccessor nested = (IConfigAccessor) Class.forName("fixture.Fixture_1Inner_ConfigAccessor", true,
+					loader).getDeclaredConstructor().newInstance();
+			assertThat(nested.getClassName()).isEqualTo("fixture.Fixture$Inner");
+			IConfigAccessor topLevel = (IConfigAccessor) Class.forName("fixture.Fixture__Inner_ConfigAccessor", true,
+					loader).getDeclaredConstructor().newInstance();
+			assertThat(topLevel.getClassName()).isEqualTo("fixture.Fixture_Inner");
+		}
+	}
+}
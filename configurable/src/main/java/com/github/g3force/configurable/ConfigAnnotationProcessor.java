@@ -0,0 +1,1691 @@
+/*
+ * *********************************************************
+ * Copyright (c) 2009 - 2014, DHBW Mannheim - Tigers Mannheim
+ * Project: TIGERS - Sumatra
+ * Date: Mar 17, 2014
+ * Author(s): Nicolai Ommer <nicolai.ommer@gmail.com>
+ * *********************************************************
+ */
+package com.github.g3force.configurable;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import javax.xml.stream.XMLStreamException;
+
+import org.apache.commons.configuration.HierarchicalConfiguration;
+import org.apache.commons.configuration.tree.ConfigurationNode;
+import org.apache.commons.lang.StringEscapeUtils;
+import org.apache.commons.lang.builder.EqualsBuilder;
+import org.apache.commons.lang.builder.HashCodeBuilder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.github.g3force.s2vconverter.String2ValueConverter;
+
+
+/**
+ * Read from a given set of classes all {@link Configurable} annotations
+ * and fill the associated fields with data from config file
+ * <br>
+ * All field data is held in an immutable {@link Snapshot}. Methods that change the data are synchronized,
+ * build a new snapshot and publish it atomically. Apply methods only read the current snapshot
+ * and do not take any lock.
+ */
+public class ConfigAnnotationProcessor
+{
+	private static final Logger log = LogManager.getLogger(ConfigAnnotationProcessor.class.getName());
+
+	private static String2ValueConverter s2vConv = String2ValueConverter.getDefault();
+
+	private static final Object UNPARSED = new Object();
+	/** result of {@link #copyValue(Object)} for values that have to be parsed again */
+	static final Object UNCOPYABLE = new Object();
+	/** bulk applies with at least this number of objects are processed in parallel */
+	private static final int PARALLEL_BULK_THRESHOLD = 1024;
+	private static final String GENERATED_ACCESSOR_SUFFIX = "_ConfigAccessor";
+	private static final ClassValue<Optional<IConfigAccessor>> generatedAccessors = new ClassValue<Optional<IConfigAccessor>>()
+	{
+		@Override
+		protected Optional<IConfigAccessor> computeValue(final Class<?> type)
+		{
+			return findGeneratedAccessor(type);
+		}
+	};
+
+	private final String category;
+	private volatile Snapshot snapshot = new Snapshot(0, Collections.emptyMap(), Collections.emptySet());
+	private final ConfigMetrics.CategoryMetrics metrics;
+	private final ConfigInstanceRegistry instances = new ConfigInstanceRegistry();
+
+
+	/**
+	 * Immutable, versioned view of all field data of this category with indices for fast lookups.
+	 * The contained {@link ConfigurableFieldData} must not be changed once the snapshot is published.
+	 */
+	private static final class Snapshot
+	{
+		private final long version;
+		private final Map<String, ConfigurableFieldData> data;
+		/** className -> fieldSpezi -> field data */
+		private final Map<String, Map<String, List<ConfigurableFieldData>>> dataBySpezi = new HashMap<>();
+		/** className -> fieldName -> field data */
+		private final Map<String, Map<String, List<ConfigurableFieldData>>> dataByField = new HashMap<>();
+		private final Set<String> spezis;
+		/** runtime class -> field data to apply with {@link #applyAll(Object)}, in apply order */
+		private final Map<Class<?>, ConfigurableFieldData[]> allPlans = new ConcurrentHashMap<>();
+		/** spezi -> runtime class -> field data to apply with {@link #applySpezi(Object, String)} */
+		private final Map<String, Map<Class<?>, ConfigurableFieldData[]>> speziPlans = new ConcurrentHashMap<>();
+
+
+		private Snapshot(final long version, final Map<String, ConfigurableFieldData> data, final Set<String> spezis)
+		{
+			this.version = version;
+			this.data = Collections.unmodifiableMap(data);
+			this.spezis = Collections.unmodifiableSet(new HashSet<>(spezis));
+			for (ConfigurableFieldData fd : data.values())
+			{
+				dataBySpezi.computeIfAbsent(fd.className, k -> new HashMap<>())
+						.computeIfAbsent(fd.fieldSpezi, k -> new ArrayList<>())
+						.add(fd);
+				dataByField.computeIfAbsent(fd.className, k -> new HashMap<>())
+						.computeIfAbsent(fd.fieldName, k -> new ArrayList<>())
+						.add(fd);
+			}
+		}
+
+
+		private List<ConfigurableFieldData> getBySpezi(final String className, final String spezi)
+		{
+			return getIndexed(dataBySpezi, className, spezi);
+		}
+
+
+		/**
+		 * Get the apply plan for the given runtime class and spezi. Plans are compiled once per snapshot.
+		 *
+		 * @param clazz the runtime class of the instance
+		 * @param spezi the spezi to apply
+		 * @return all field data of clazz and its super classes with the given spezi
+		 */
+		private ConfigurableFieldData[] getPlan(final Class<?> clazz, final String spezi)
+		{
+			return speziPlans.computeIfAbsent(spezi, k -> new ConcurrentHashMap<>())
+					.computeIfAbsent(clazz, c -> compilePlan(c, spezi));
+		}
+
+
+		/**
+		 * Get the apply plan for all spezis of the given runtime class. Plans are compiled once per snapshot.
+		 *
+		 * @param clazz the runtime class of the instance
+		 * @return all field data of clazz and its super classes, the default spezi first
+		 */
+		private ConfigurableFieldData[] getPlan(final Class<?> clazz)
+		{
+			return allPlans.computeIfAbsent(clazz, c -> {
+				List<ConfigurableFieldData> plan = new ArrayList<>();
+				Collections.addAll(plan, getPlan(c, ""));
+				spezis.forEach(s -> Collections.addAll(plan, getPlan(c, s)));
+				return plan.toArray(new ConfigurableFieldData[0]);
+			});
+		}
+
+
+		private ConfigurableFieldData[] compilePlan(final Class<?> clazz, final String spezi)
+		{
+			List<ConfigurableFieldData> plan = new ArrayList<>();
+			for (Class<?> c = clazz; ((c != null) && !c.equals(Object.class)); c = c.getSuperclass())
+			{
+				plan.addAll(getBySpezi(c.getCanonicalName(), spezi));
+			}
+			return plan.toArray(new ConfigurableFieldData[0]);
+		}
+
+
+		private List<ConfigurableFieldData> getByField(final String className, final String fieldName)
+		{
+			return getIndexed(dataByField, className, fieldName);
+		}
+
+
+		private static List<ConfigurableFieldData> getIndexed(
+				final Map<String, Map<String, List<ConfigurableFieldData>>> index,
+				final String className,
+				final String key)
+		{
+			return index.getOrDefault(className, Collections.emptyMap()).getOrDefault(key, Collections.emptyList());
+		}
+	}
+
+
+	private static class ConfigurableFieldData implements Comparable<ConfigurableFieldData>
+	{
+		private String className;
+		private String fieldName;
+		private String fieldSpezi = "";
+
+		private String fieldValue = "";
+		private String fieldDefValue = "";
+		private String comment = "";
+		private Class<?> fieldType;
+		private FieldAccessor accessor;
+
+		/** fieldValue converted to the field type, {@link #UNPARSED} until first requested */
+		private volatile Object parsedValue = UNPARSED;
+
+
+		private String getKey()
+		{
+			return ConfigAnnotationProcessor.getKey(className, fieldName, fieldSpezi);
+		}
+
+
+		private void setFieldValue(final String fieldValue)
+		{
+			this.fieldValue = fieldValue;
+			parsedValue = UNPARSED;
+		}
+
+
+		/**
+		 * @return a modifiable copy of this field data, to be put into a new snapshot
+		 */
+		private ConfigurableFieldData copy()
+		{
+			ConfigurableFieldData fd = new ConfigurableFieldData();
+			fd.className = className;
+			fd.fieldName = fieldName;
+			fd.fieldSpezi = fieldSpezi;
+			fd.fieldValue = fieldValue;
+			fd.fieldDefValue = fieldDefValue;
+			fd.comment = comment;
+			fd.fieldType = fieldType;
+			fd.accessor = accessor;
+			fd.parsedValue = parsedValue;
+			return fd;
+		}
+
+
+		/**
+		 * Get the value converted to the field type. The string value is only parsed once per change.
+		 * Immutable values are shared, arrays and collections are copied and only values of unknown
+		 * types are parsed again, so that instances never share mutable state.
+		 *
+		 * @return the value to be assigned to the field
+		 */
+		private Object getParsedValue()
+		{
+			Object value = copyValue(getSharedValue());
+			if (value == UNCOPYABLE)
+			{
+				return s2vConv.parseString(accessor.type, fieldValue);
+			}
+			return value;
+		}
+
+
+		/**
+		 * @return the cached value converted to the field type, shared between all callers
+		 */
+		private Object getSharedValue()
+		{
+			Object value = parsedValue;
+			if (value == UNPARSED)
+			{
+				// concurrent appliers may parse the same value, but the result is always the same
+				value = s2vConv.parseString(accessor.type, fieldValue);
+				parsedValue = value;
+			}
+			return value;
+		}
+
+
+		@Override
+		public int compareTo(final ConfigurableFieldData o)
+		{
+			int cmp = className.compareToIgnoreCase(o.className);
+			if (cmp != 0)
+			{
+				return cmp;
+			}
+			return fieldName.compareToIgnoreCase(o.fieldName);
+		}
+
+
+		@Override
+		public boolean equals(Object o)
+		{
+			if (this == o)
+				return true;
+
+			if (o == null || getClass() != o.getClass())
+				return false;
+
+			ConfigurableFieldData that = (ConfigurableFieldData) o;
+
+			return new EqualsBuilder()
+					.append(className, that.className)
+					.append(fieldName, that.fieldName)
+					.append(fieldSpezi, that.fieldSpezi)
+					.append(fieldValue, that.fieldValue)
+					.append(fieldDefValue, that.fieldDefValue)
+					.append(comment, that.comment)
+					.append(fieldType, that.fieldType)
+					.isEquals();
+		}
+
+
+		@Override
+		public int hashCode()
+		{
+			return new HashCodeBuilder(17, 37)
+					.append(className)
+					.append(fieldName)
+					.append(fieldSpezi)
+					.append(fieldValue)
+					.append(fieldDefValue)
+					.append(comment)
+					.append(fieldType)
+					.toHashCode();
+		}
+	}
+
+
+	/**
+	 * Pre-bound setter and getter for a configurable field. It is resolved once per field
+	 * and reused for every following apply. Generated accessors are preferred over reflection.
+	 */
+	private static class FieldAccessor
+	{
+		private static final MethodType STATIC_SETTER_TYPE = MethodType.methodType(void.class, Object.class);
+		private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+		private static final MethodType STATIC_GETTER_TYPE = MethodType.methodType(Object.class);
+		private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+		private final String name;
+		private final Class<?> type;
+		private final boolean isStatic;
+		private final MethodHandle setter;
+		private final MethodHandle getter;
+		private final BiConsumer<Object, Object> generatedSetter;
+		private final Function<Object, Object> generatedGetter;
+
+
+		private FieldAccessor(final Field field) throws IllegalAccessException
+		{
+			field.setAccessible(true);
+			name = field.getName();
+			type = field.getType();
+			isStatic = (field.getModifiers() & Modifier.STATIC) != 0;
+			setter = MethodHandles.lookup().unreflectSetter(field)
+					.asType(isStatic ? STATIC_SETTER_TYPE : SETTER_TYPE);
+			getter = MethodHandles.lookup().unreflectGetter(field)
+					.asType(isStatic ? STATIC_GETTER_TYPE : GETTER_TYPE);
+			generatedSetter = null;
+			generatedGetter = null;
+		}
+
+
+		private FieldAccessor(final ConfigFieldDescriptor descriptor)
+		{
+			name = descriptor.getName();
+			type = descriptor.getType();
+			isStatic = descriptor.isStatic();
+			setter = null;
+			getter = null;
+			generatedSetter = descriptor.getSetter();
+			generatedGetter = descriptor.getGetter();
+		}
+
+
+		private void set(final Object obj, final Object value)
+		{
+			try
+			{
+				if (generatedSetter != null)
+				{
+					generatedSetter.accept(obj, value);
+				} else if (isStatic)
+				{
+					setter.invokeExact(value);
+				} else
+				{
+					setter.invokeExact(obj, value);
+				}
+			} catch (Error err)
+			{
+				throw err;
+			} catch (Throwable err)
+			{
+				throw new IllegalArgumentException("Could not set value on field " + name, err);
+			}
+		}
+
+
+		private Object get(final Object obj)
+		{
+			try
+			{
+				if (generatedGetter != null)
+				{
+					return generatedGetter.apply(obj);
+				} else if (isStatic)
+				{
+					return (Object) getter.invokeExact();
+				}
+				return (Object) getter.invokeExact(obj);
+			} catch (Error err)
+			{
+				throw err;
+			} catch (Throwable err)
+			{
+				throw new IllegalArgumentException("Could not get value of field " + name, err);
+			}
+		}
+	}
+
+
+	/**
+	 * @param name the category name
+	 */
+	@SuppressWarnings("WeakerAccess")
+	public ConfigAnnotationProcessor(final String name)
+	{
+		category = name;
+		metrics = ConfigMetrics.forCategory(name);
+	}
+
+
+	private String getAttribute(final ConfigurationNode node, final String name)
+	{
+		List<ConfigurationNode> attrs = node.getAttributes(name);
+		String base = "";
+		if (attrs.size() == 1)
+		{
+			base = attrs.get(0).getValue().toString();
+		}
+		return base;
+	}
+
+
+	/**
+	 * @param className the name of the class declaring the field
+	 * @param fieldName the name of the field
+	 * @param spezi the spezi
+	 * @return the key of the field data
+	 */
+	static String getKey(final String className, final String fieldName, final String spezi)
+	{
+		return className + "." + fieldName + ":" + spezi;
+	}
+
+
+	/**
+	 * Load field data from given config object. Existing values will be overwritten
+	 * Note: It will not be applies yet, use one of the apply methods for this.
+	 *
+	 * @param config full merged config to be used
+	 * @return all values that changed or were not known before
+	 */
+	@SuppressWarnings("WeakerAccess")
+	public synchronized List<ConfigChange> loadConfiguration(final HierarchicalConfiguration config)
+	{
+		long start = ConfigMetrics.start();
+		Object event = ConfigEvents.beginLoad();
+		List<ConfigChange> changes = new ArrayList<>();
+		Map<String, ConfigurableFieldData> data = new LinkedHashMap<>(snapshot.data);
+		String base = getAttribute(config.getRoot(), "base");
+
+		Map<Class<?>, ConfigurationNode> classes = getClassNodesFromConfigRec(base, config.getRoot());
+
+		for (Map.Entry<Class<?>, ConfigurationNode> entry : classes.entrySet())
+		{
+			Class<?> clazz = entry.getKey();
+			List<ConfigurationNode> fieldNodes = entry.getValue().getChildren();
+			for (ConfigurationNode fieldNode : fieldNodes)
+			{
+				String fieldValue = fieldNode.getValue() == null ? ""
+						: unescape(s2vConv.toString(
+								fieldNode
+										.getValue().getClass(),
+								fieldNode.getValue()));
+				String comment = getAttribute(fieldNode, "comment");
+				loadField(data, changes, clazz, fieldNode.getName(), fieldValue, comment);
+			}
+		}
+		if (!changes.isEmpty())
+		{
+			publish(data, snapshot.spezis);
+		}
+		metrics.record(ConfigOperation.LOAD, start);
+		ConfigEvents.commitLoad(event, category, changes.size());
+		return changes;
+	}
+
+
+	/**
+	 * Load field data from given config file content. Existing values will be overwritten.
+	 * The file is streamed, so no intermediate config is built.
+	 * Note: It will not be applies yet, use one of the apply methods for this.
+	 *
+	 * @param in the content of a config file, it will not be closed
+	 * @return all values that changed or were not known before
+	 * @throws XMLStreamException if the content is not well-formed. Nothing is loaded in this case.
+	 */
+	@SuppressWarnings("WeakerAccess")
+	public synchronized List<ConfigChange> loadConfiguration(final InputStream in) throws XMLStreamException
+	{
+		long start = ConfigMetrics.start();
+		Object event = ConfigEvents.beginLoad();
+		List<ConfigChange> changes = new ArrayList<>();
+		Map<String, ConfigurableFieldData> data = new LinkedHashMap<>(snapshot.data);
+		ConfigXmlReader.read(in, (clazz, nodeName, value, comment) -> loadField(data, changes, clazz, nodeName,
+				unescape(value), comment));
+		if (!changes.isEmpty())
+		{
+			publish(data, snapshot.spezis);
+		}
+		metrics.record(ConfigOperation.LOAD, start);
+		ConfigEvents.commitLoad(event, category, changes.size());
+		return changes;
+	}
+
+
+	/**
+	 * Load field data from a config file that was parsed before. Existing values will be overwritten.
+	 * Note: It will not be applies yet, use one of the apply methods for this.
+	 *
+	 * @param content the parsed config file
+	 * @return all values that changed or were not known before
+	 */
+	synchronized List<ConfigChange> loadConfiguration(final ConfigFileContent content)
+	{
+		long start = ConfigMetrics.start();
+		Object event = ConfigEvents.beginLoad();
+		List<ConfigChange> changes = new ArrayList<>();
+		Map<String, ConfigurableFieldData> data = new LinkedHashMap<>(snapshot.data);
+		for (ConfigFileContent.Entry entry : content.getEntries())
+		{
+			loadField(data, changes, entry.clazz, entry.nodeName, unescape(entry.value), entry.comment);
+		}
+		if (!changes.isEmpty())
+		{
+			publish(data, snapshot.spezis);
+		}
+		metrics.record(ConfigOperation.LOAD, start);
+		ConfigEvents.commitLoad(event, category, changes.size());
+		return changes;
+	}
+
+
+	private void loadField(final Map<String, ConfigurableFieldData> data, final List<ConfigChange> changes,
+			final Class<?> clazz, final String nodeName, final String fieldValue, final String comment)
+	{
+		String className = clazz.getName();
+		String[] split = nodeName.split(":");
+		String fieldName = split[0];
+		String fieldSpezi = split.length > 1 ? split[1] : "";
+		ConfigurableFieldData fieldData = new ConfigurableFieldData();
+		fieldData.className = className;
+		fieldData.fieldName = fieldName;
+		fieldData.fieldSpezi = fieldSpezi;
+		fieldData.setFieldValue(fieldValue);
+		fieldData.comment = comment;
+		ConfigurableFieldData fdCur = data.get(fieldData.getKey());
+		if (fdCur != null)
+		{
+			if (!fdCur.fieldValue.equals(fieldValue))
+			{
+				ConfigurableFieldData fdNew = fdCur.copy();
+				fdNew.setFieldValue(fieldValue);
+				data.put(fdNew.getKey(), fdNew);
+				changes.add(new ConfigChange(className, fieldName, fieldSpezi, fdCur.fieldValue, fieldValue));
+			}
+			return;
+		}
+		try
+		{
+			fieldData.accessor = new FieldAccessor(clazz.getDeclaredField(fieldName));
+			data.put(fieldData.getKey(), fieldData);
+			changes.add(new ConfigChange(className, fieldName, fieldSpezi, null, fieldValue));
+		} catch (NoSuchFieldException e)
+		{
+			log.info("Field vanished in {}: {}#{}", category, className, fieldName);
+		} catch (SecurityException e)
+		{
+			log.error("Sec exception", e);
+		} catch (IllegalAccessException e)
+		{
+			log.error("Could not access field {}#{}", className, fieldName, e);
+		}
+	}
+
+
+	/**
+	 * Load all configurable fields from clazz and its subclasses
+	 *
+	 * @param clazz the class to load
+	 * @param overwrite existing values
+	 */
+	@SuppressWarnings("WeakerAccess")
+	public void loadClass(final Class<?> clazz, final boolean overwrite)
+	{
+		loadClasses(Collections.singletonList(clazz), overwrite);
+	}
+
+
+	/**
+	 * Load all configurable fields from the given classes and their subclasses at once
+	 *
+	 * @param classes the classes to load
+	 * @param overwrite existing values
+	 */
+	@SuppressWarnings("WeakerAccess")
+	public void loadClasses(final Collection<Class<?>> classes, final boolean overwrite)
+	{
+		// static fields are read and written without holding the lock, as this may initialize classes
+		List<ConfigurableFieldData> fieldData = new ArrayList<>();
+		for (Class<?> c : classes.stream().flatMap(clazz -> getClassAndSubClasses(clazz).stream()).distinct()
+				.collect(Collectors.toList()))
+		{
+			ConfigClassIndex.register(c);
+			fieldData.addAll(read(c));
+		}
+		List<ConfigurableFieldData> toApply = new ArrayList<>();
+		synchronized (this)
+		{
+			Map<String, ConfigurableFieldData> data = new LinkedHashMap<>(snapshot.data);
+			for (ConfigurableFieldData fd : fieldData)
+			{
+				ConfigurableFieldData fdCur = data.get(fd.getKey());
+				if ((fdCur == null) || overwrite)
+				{
+					if (!overwrite && !fd.fieldDefValue.isEmpty())
+					{
+						fd.setFieldValue(fd.fieldDefValue);
+					}
+					data.put(fd.getKey(), fd);
+					// only apply the default spezi
+					if ("".equals(fd.fieldSpezi))
+					{
+						toApply.add(fd);
+					}
+				} else
+				{
+					ConfigurableFieldData fdNew = fdCur.copy();
+					fdNew.comment = fd.comment;
+					fdNew.fieldDefValue = fd.fieldDefValue;
+					fdNew.fieldType = fd.fieldType;
+					fdNew.accessor = fd.accessor;
+					data.put(fdNew.getKey(), fdNew);
+				}
+			}
+			publish(data, snapshot.spezis);
+		}
+		toApply.forEach(fd -> applyFieldData(fd, null));
+	}
+
+
+	/**
+	 * Load the configurable fields of a class and apply the current values of the default spezi
+	 * to its own static fields. Apart from the class and its (already initialized) super classes,
+	 * no class is accessed, so this is safe to call from static initializers.
+	 *
+	 * @param clazz the class to register
+	 */
+	void registerClass(final Class<?> clazz)
+	{
+		loadClass(clazz, false);
+		for (ConfigurableFieldData fd : snapshot.getBySpezi(clazz.getName(), ""))
+		{
+			applyFieldData(fd, null);
+		}
+	}
+
+
+	/**
+	 * Create the effective config from currently loaded fields
+	 *
+	 * @return the effective config
+	 */
+	@SuppressWarnings("WeakerAccess")
+	public HierarchicalConfiguration getEffectiveConfig()
+	{
+		return getConfig(new ArrayList<>(snapshot.data.values()), true);
+	}
+
+
+	/**
+	 * Create the minimal config from currently loaded fields.
+	 * All fields that have their default value, will be skipped
+	 *
+	 * @return the minimal config
+	 */
+	@SuppressWarnings("WeakerAccess")
+	public HierarchicalConfiguration getMinimalConfig()
+	{
+		return getConfig(getMinimalData(), false);
+	}
+
+
+	/**
+	 * Stream the minimal config from currently loaded fields to the given stream.
+	 * The output equals the serialized {@link #getMinimalConfig()}.
+	 *
+	 * @param out the target stream, it will not be closed
+	 * @throws XMLStreamException if the config could not be written
+	 */
+	void writeMinimalConfig(final OutputStream out) throws XMLStreamException
+	{
+		writeMinimalConfig(out, null);
+	}
+
+
+	/**
+	 * Stream the minimal config from currently loaded fields to the given stream
+	 * and add the same entries to the given snapshot.
+	 *
+	 * @param out the target stream, it will not be closed
+	 * @param snapshot the snapshot to fill or null
+	 * @throws XMLStreamException if the config could not be written
+	 */
+	void writeMinimalConfig(final OutputStream out, final ConfigSnapshotFile snapshot) throws XMLStreamException
+	{
+		List<ConfigurableFieldData> fData = getMinimalData();
+		Collections.sort(fData);
+		String base = getBase(fData);
+		ConfigXmlWriter writer = new ConfigXmlWriter(base);
+		for (ConfigurableFieldData fieldData : fData)
+		{
+			if (fieldData.fieldType != null)
+			{
+				String value = escape(fieldData.fieldValue);
+				writer.add(getConfigKey(base, fieldData), value);
+				if (snapshot != null)
+				{
+					String spezi = fieldData.fieldSpezi.isEmpty() ? "" : ":" + fieldData.fieldSpezi;
+					// values are trimmed when reading the XML file
+					snapshot.add(fieldData.className, fieldData.fieldName + spezi, value.trim());
+				}
+			}
+		}
+		writer.write(out);
+	}
+
+
+	private List<ConfigurableFieldData> getMinimalData()
+	{
+		Map<String, ConfigurableFieldData> data = snapshot.data;
+		List<ConfigurableFieldData> minData = new ArrayList<>(data.size());
+
+		for (ConfigurableFieldData fd : data.values())
+		{
+			if (!fd.fieldValue.equals(fd.fieldDefValue))
+			{
+				minData.add(fd);
+			}
+		}
+		return minData;
+	}
+
+
+	/**
+	 * @param obj apply all spezis to the given instance
+	 */
+	@SuppressWarnings("unused")
+	public void applyAll(final Object obj)
+	{
+		long start = ConfigMetrics.start();
+		Object event = ConfigEvents.beginApply();
+		ConfigurableFieldData[] plan = snapshot.getPlan(obj.getClass());
+		applyPlan(plan, obj);
+		metrics.record(ConfigOperation.APPLY_ALL, start);
+		ConfigEvents.commitApply(event, category, null, obj.getClass(), plan.length);
+	}
+
+
+	/**
+	 * Apply all spezis to all given instances. All instances get the values of the same config state.
+	 * Large collections are processed in parallel on the common fork join pool.
+	 *
+	 * @param objects the instances to apply to
+	 */
+	@SuppressWarnings("WeakerAccess")
+	public void applyAllBulk(final Collection<?> objects)
+	{
+		long start = ConfigMetrics.start();
+		Snapshot snap = snapshot;
+		applyBulk(objects, obj -> applyPlan(snap.getPlan(obj.getClass()), obj));
+		metrics.record(ConfigOperation.APPLY_BULK, start);
+	}
+
+
+	/**
+	 * Apply a spezi to all given instances. All instances get the values of the same config state.
+	 * Large collections are processed in parallel on the common fork join pool.
+	 *
+	 * @param objects the instances to apply to
+	 * @param spezi apply this spezi only
+	 */
+	@SuppressWarnings("WeakerAccess")
+	public void applySpeziBulk(final Collection<?> objects, final String spezi)
+	{
+		long start = ConfigMetrics.start();
+		Snapshot snap = snapshot;
+		applyBulk(objects, obj -> applyPlan(snap.getPlan(obj.getClass(), spezi), obj));
+		metrics.record(ConfigOperation.APPLY_BULK, start);
+	}
+
+
+	/**
+	 * Apply only the changed values of a spezi to all given instances. Static fields are not touched,
+	 * use {@link #applyChanges(Collection)} for them.
+	 * Large collections are processed in parallel on the common fork join pool.
+	 *
+	 * @param objects the instances to apply to
+	 * @param spezi the spezi of the instances
+	 * @param changes the changes returned by {@link #loadConfiguration(HierarchicalConfiguration)}
+	 */
+	@SuppressWarnings("WeakerAccess")
+	public void applyChangesBulk(final Collection<?> objects, final String spezi,
+			final Collection<ConfigChange> changes)
+	{
+		long start = ConfigMetrics.start();
+		applyChangedFields(snapshot, objects, spezi, getKeys(changes));
+		metrics.record(ConfigOperation.APPLY_BULK, start);
+	}
+
+
+	private void applyChangedFields(final Snapshot snap, final Collection<?> objects, final String spezi,
+			final Set<String> keys)
+	{
+		applyInstanceFields(snap, objects, spezi, fd -> keys.contains(fd.getKey()));
+	}
+
+
+	private void applyInstanceFields(final Snapshot snap, final Collection<?> objects, final String spezi,
+			final Predicate<ConfigurableFieldData> filter)
+	{
+		Map<Class<?>, ConfigurableFieldData[]> plans = new ConcurrentHashMap<>();
+		applyBulk(objects, obj -> applyPlan(plans.computeIfAbsent(obj.getClass(),
+				c -> Arrays.stream(snap.getPlan(c, spezi))
+						.filter(fd -> !fd.accessor.isStatic && filter.test(fd))
+						.toArray(ConfigurableFieldData[]::new)),
+				obj));
+	}
+
+
+	private static Set<String> getKeys(final Collection<ConfigChange> changes)
+	{
+		Set<String> keys = new HashSet<>();
+		for (ConfigChange change : changes)
+		{
+			keys.add(getKey(change.getClassName(), change.getFieldName(), change.getSpezi()));
+		}
+		return keys;
+	}
+
+
+	/**
+	 * Track an instance, so that changed values of its spezi are applied to it by {@link #applyChanges(Collection)}
+	 * and {@link #overrideField}. The current values are applied immediately.
+	 * The instance is only weakly referenced.
+	 *
+	 * @param obj the instance to track
+	 * @param spezi the spezi of the instance, replacing the spezi it was tracked with before
+	 */
+	@SuppressWarnings("WeakerAccess")
+	public void trackInstance(final Object obj, final String spezi)
+	{
+		instances.track(obj, spezi);
+		applySpezi(obj, spezi);
+	}
+
+
+	/**
+	 * @param obj the instance to stop tracking
+	 */
+	@SuppressWarnings("WeakerAccess")
+	public void untrackInstance(final Object obj)
+	{
+		instances.untrack(obj);
+	}
+
+
+	/**
+	 * @return the number of tracked live instances
+	 */
+	int getTrackedInstanceCount()
+	{
+		return instances.size();
+	}
+
+
+	/**
+	 * Apply all values of their spezi to all tracked instances, in batches per spezi.
+	 * Static fields are not touched.
+	 */
+	void applyAllToInstances()
+	{
+		Snapshot snap = snapshot;
+		instances.getInstancesBySpezi().forEach((spezi, objects) -> applyInstanceFields(snap, objects, spezi,
+				fd -> true));
+	}
+
+
+	private void applyToInstances(final Snapshot snap, final Set<String> keys)
+	{
+		if (keys.isEmpty())
+		{
+			return;
+		}
+		instances.getInstancesBySpezi().forEach((spezi, objects) -> applyChangedFields(snap, objects, spezi, keys));
+	}
+
+
+	private void applyBulk(final Collection<?> objects, final Consumer<Object> apply)
+	{
+		if (objects.size() < PARALLEL_BULK_THRESHOLD)
+		{
+			objects.forEach(apply);
+		} else
+		{
+			objects.parallelStream().forEach(apply);
+		}
+	}
+
+
+	/**
+	 * Apply the given changes to static fields. For each changed field, the default spezi is applied,
+	 * which results in the same state of the changed fields as {@link #applyAll()}.
+	 * Tracked instances get the changed values of their spezi.
+	 *
+	 * @param changes the changes returned by {@link #loadConfiguration(HierarchicalConfiguration)}
+	 */
+	@SuppressWarnings("WeakerAccess")
+	public void applyChanges(final Collection<ConfigChange> changes)
+	{
+		long start = ConfigMetrics.start();
+		Object event = ConfigEvents.beginApply();
+		Snapshot snap = snapshot;
+		Set<String> applied = new HashSet<>();
+		for (ConfigChange change : changes)
+		{
+			String key = getKey(change.getClassName(), change.getFieldName(), "");
+			ConfigurableFieldData fd = snap.data.get(key);
+			if ((fd != null) && applied.add(key))
+			{
+				applyFieldData(fd, null);
+			}
+		}
+		ConfigEvents.commitApply(event, category, null, null, applied.size());
+		applyToInstances(snap, getKeys(changes));
+		metrics.record(ConfigOperation.APPLY_CHANGES, start);
+	}
+
+
+	/**
+	 * Apply all spezis to all static fields
+	 */
+	@SuppressWarnings("WeakerAccess")
+	public void applyAll()
+	{
+		long start = ConfigMetrics.start();
+		Object event = ConfigEvents.beginApply();
+		Snapshot snap = snapshot;
+		int fieldCount = 0;
+		for (String s : snap.spezis)
+		{
+			fieldCount += applySpezi(snap, s);
+		}
+		fieldCount += applySpezi(snap, "");
+		metrics.record(ConfigOperation.APPLY_ALL, start);
+		ConfigEvents.commitApply(event, category, null, null, fieldCount);
+	}
+
+
+	/**
+	 * @param spezi apply this spezi only
+	 */
+	@SuppressWarnings("WeakerAccess")
+	public void applySpezi(final String spezi)
+	{
+		long start = ConfigMetrics.start();
+		Object event = ConfigEvents.beginApply();
+		addSpezi(spezi);
+		int fieldCount = applySpezi(snapshot, spezi);
+		metrics.record(ConfigOperation.APPLY_SPEZI, start);
+		ConfigEvents.commitApply(event, category, spezi, null, fieldCount);
+	}
+
+
+	private int applySpezi(final Snapshot snap, final String spezi)
+	{
+		int fieldCount = 0;
+		for (ConfigurableFieldData fd : snap.data.values())
+		{
+			if (fd.fieldSpezi.equals(spezi))
+			{
+				applyFieldData(fd, null);
+				fieldCount++;
+			}
+		}
+		return fieldCount;
+	}
+
+
+	/**
+	 * Apply values to all fields of the given object. SubClasses will be considered.
+	 *
+	 * @param obj apply to this instance only
+	 * @param spezi apply this spezi only
+	 */
+	@SuppressWarnings("WeakerAccess")
+	public void applySpezi(final Object obj, final String spezi)
+	{
+		long start = ConfigMetrics.start();
+		Object event = ConfigEvents.beginApply();
+		ConfigurableFieldData[] plan = snapshot.getPlan(obj.getClass(), spezi);
+		applyPlan(plan, obj);
+		metrics.record(ConfigOperation.APPLY_SPEZI, start);
+		ConfigEvents.commitApply(event, category, spezi, obj.getClass(), plan.length);
+	}
+
+
+	private void applyPlan(final ConfigurableFieldData[] plan, final Object obj)
+	{
+		for (ConfigurableFieldData fd : plan)
+		{
+			applyFieldData(fd, obj);
+		}
+	}
+
+
+	/**
+	 * Apply values to all fields of the given class. SubClasses will be considered.
+	 *
+	 * @param clazz apply to this class only
+	 * @param spezi apply this spezi only
+	 */
+	@SuppressWarnings("unused")
+	public void applySpezi(final Class<?> clazz, final String spezi)
+	{
+		long start = ConfigMetrics.start();
+		Object event = ConfigEvents.beginApply();
+		Snapshot snap = snapshot;
+		int fieldCount = 0;
+		for (Class<?> c = clazz; ((c != null) && !c.equals(Object.class)); c = c
+				.getSuperclass())
+		{
+			for (ConfigurableFieldData fd : snap.getBySpezi(c.getCanonicalName(), spezi))
+			{
+				applyFieldData(fd, null);
+				fieldCount++;
+			}
+		}
+		metrics.record(ConfigOperation.APPLY_SPEZI, start);
+		ConfigEvents.commitApply(event, category, spezi, null, fieldCount);
+	}
+
+
+	/**
+	 * @param spezi the spezi to add
+	 */
+	@SuppressWarnings("WeakerAccess")
+	public void addSpezi(final String spezi)
+	{
+		if (snapshot.spezis.contains(spezi))
+		{
+			return;
+		}
+		synchronized (this)
+		{
+			Set<String> spezis = new HashSet<>(snapshot.spezis);
+			if (spezis.add(spezi))
+			{
+				publish(new LinkedHashMap<>(snapshot.data), spezis);
+			}
+		}
+	}
+
+
+	/**
+	 * @param spezi the spezi to remove
+	 */
+	@SuppressWarnings("unused")
+	public synchronized void removeSpezi(final String spezi)
+	{
+		Set<String> spezis = new HashSet<>(snapshot.spezis);
+		if (spezis.remove(spezi))
+		{
+			publish(new LinkedHashMap<>(snapshot.data), spezis);
+		}
+	}
+
+
+	/**
+	 * Override a fields value. Tracked instances get the new value of their spezi.
+	 *
+	 * @param obj the object to apply the config to after overriding
+	 * @param fieldName the name of the field to override
+	 * @param value the value to apply
+	 */
+	@SuppressWarnings("WeakerAccess")
+	public void overrideField(Object obj, String fieldName, String value)
+	{
+		long start = ConfigMetrics.start();
+		Object event = ConfigEvents.beginOverride();
+		List<ConfigurableFieldData> toApply = new ArrayList<>();
+		synchronized (this)
+		{
+			Map<String, ConfigurableFieldData> data = new LinkedHashMap<>(snapshot.data);
+			for (Class<?> c = obj.getClass(); ((c != null) && !c.equals(Object.class)); c = c
+					.getSuperclass())
+			{
+				for (ConfigurableFieldData fd : snapshot.getByField(c.getCanonicalName(), fieldName))
+				{
+					ConfigurableFieldData fdNew = fd.copy();
+					fdNew.setFieldValue(value);
+					data.put(fdNew.getKey(), fdNew);
+					toApply.add(fdNew);
+				}
+			}
+			publish(data, snapshot.spezis);
+		}
+		// applied without holding the lock, as this may initialize classes
+		toApply.forEach(fd -> applyFieldData(fd, obj));
+		applyToInstances(snapshot, toApply.stream().map(ConfigurableFieldData::getKey).collect(Collectors.toSet()));
+		metrics.record(ConfigOperation.OVERRIDE, start);
+		ConfigEvents.commitOverride(event, category, obj.getClass(), fieldName, value);
+	}
+
+
+	/**
+	 * Override a fields value. Tracked instances get the new value of their spezi.
+	 *
+	 * @param clazz the class to apply the config to after overriding
+	 * @param fieldName the name of the field to override
+	 * @param value the value to apply
+	 */
+	@SuppressWarnings("WeakerAccess")
+	public void overrideField(Class<?> clazz, String fieldName, String value)
+	{
+		long start = ConfigMetrics.start();
+		Object event = ConfigEvents.beginOverride();
+		List<ConfigurableFieldData> toApply = new ArrayList<>();
+		synchronized (this)
+		{
+			Map<String, ConfigurableFieldData> data = new LinkedHashMap<>(snapshot.data);
+			for (Class<?> c = clazz; ((c != null) && !c.equals(Object.class)); c = c
+					.getSuperclass())
+			{
+				for (ConfigurableFieldData fd : snapshot.getByField(c.getCanonicalName(), fieldName))
+				{
+					ConfigurableFieldData fdNew = fd.copy();
+					fdNew.setFieldValue(value);
+					data.put(fdNew.getKey(), fdNew);
+					toApply.add(fdNew);
+				}
+			}
+			publish(data, snapshot.spezis);
+		}
+		// applied without holding the lock, as this may initialize classes
+		toApply.forEach(fd -> applyFieldData(fd, null));
+		applyToInstances(snapshot, toApply.stream().map(ConfigurableFieldData::getKey).collect(Collectors.toSet()));
+		metrics.record(ConfigOperation.OVERRIDE, start);
+		ConfigEvents.commitOverride(event, category, clazz, fieldName, value);
+	}
+
+
+	/**
+	 * @return the version of the current field data, incremented on each change
+	 */
+	long getVersion()
+	{
+		return snapshot.version;
+	}
+
+
+	/**
+	 * @param key the field data key (className.fieldName:spezi)
+	 * @return true, if there is field data for the key
+	 */
+	boolean hasValue(final String key)
+	{
+		return snapshot.data.containsKey(key);
+	}
+
+
+	/**
+	 * Copy a parsed value, so that it can be assigned to a field without sharing mutable state.
+	 * Immutable values are returned as they are. Arrays, lists and maps are copied deeply,
+	 * sets are copied if their elements are immutable.
+	 *
+	 * @param value the parsed value
+	 * @return the copy or {@link #UNCOPYABLE}, if the value (or one of its elements) can not be copied
+	 */
+	@SuppressWarnings("unchecked")
+	static Object copyValue(final Object value)
+	{
+		if (isImmutable(value))
+		{
+			return value;
+		}
+		Class<?> type = value.getClass();
+		if (type.isArray())
+		{
+			return copyArray(value);
+		}
+		if ((type == ArrayList.class) || (type == LinkedList.class))
+		{
+			List<Object> copy = type == ArrayList.class
+					? new ArrayList<>((List<Object>) value)
+					: new LinkedList<>((List<Object>) value);
+			copy.replaceAll(ConfigAnnotationProcessor::copyValue);
+			return copy.contains(UNCOPYABLE) ? UNCOPYABLE : copy;
+		}
+		if ((value instanceof Set) && ((Set<?>) value).stream().allMatch(ConfigAnnotationProcessor::isImmutable))
+		{
+			return copySet((Set<Object>) value);
+		}
+		if ((value instanceof Map) && ((Map<?, ?>) value).keySet().stream()
+				.allMatch(ConfigAnnotationProcessor::isImmutable))
+		{
+			Map<Object, Object> copy = copyMap((Map<Object, Object>) value);
+			if (copy == null)
+			{
+				return UNCOPYABLE;
+			}
+			copy.replaceAll((k, v) -> copyValue(v));
+			return copy.containsValue(UNCOPYABLE) ? UNCOPYABLE : copy;
+		}
+		return UNCOPYABLE;
+	}
+
+
+	@SuppressWarnings("unchecked")
+	private static Object copySet(final Set<Object> set)
+	{
+		Class<?> type = set.getClass();
+		if (set instanceof EnumSet)
+		{
+			return ((EnumSet<?>) set).clone();
+		} else if (type == HashSet.class)
+		{
+			return new HashSet<>(set);
+		} else if (type == LinkedHashSet.class)
+		{
+			return new LinkedHashSet<>(set);
+		} else if (type == TreeSet.class)
+		{
+			return new TreeSet<>((SortedSet<Object>) set);
+		}
+		return UNCOPYABLE;
+	}
+
+
+	@SuppressWarnings("unchecked")
+	private static Map<Object, Object> copyMap(final Map<Object, Object> map)
+	{
+		Class<?> type = map.getClass();
+		if (map instanceof EnumMap)
+		{
+			return (Map<Object, Object>) (Map<?, ?>) ((EnumMap<?, ?>) map).clone();
+		} else if (type == HashMap.class)
+		{
+			return new HashMap<>(map);
+		} else if (type == LinkedHashMap.class)
+		{
+			return new LinkedHashMap<>(map);
+		} else if (type == TreeMap.class)
+		{
+			return new TreeMap<>((SortedMap<Object, Object>) map);
+		}
+		return null;
+	}
+
+
+	private static boolean isImmutable(final Object value)
+	{
+		return (value == null)
+				|| (value instanceof String)
+				|| (value instanceof Enum)
+				|| (value instanceof Boolean)
+				|| (value instanceof Character)
+				|| (value instanceof Byte)
+				|| (value instanceof Short)
+				|| (value instanceof Integer)
+				|| (value instanceof Long)
+				|| (value instanceof Float)
+				|| (value instanceof Double);
+	}
+
+
+	private static Object copyArray(final Object array)
+	{
+		int length = Array.getLength(array);
+		Class<?> componentType = array.getClass().getComponentType();
+		Object copy = Array.newInstance(componentType, length);
+		if (componentType.isPrimitive() || !componentType.isArray())
+		{
+			System.arraycopy(array, 0, copy, 0, length);
+		} else
+		{
+			for (int i = 0; i < length; i++)
+			{
+				Object element = Array.get(array, i);
+				Array.set(copy, i, element == null ? null : copyArray(element));
+			}
+		}
+		return copy;
+	}
+
+
+	/**
+	 * Get the current value of a field without defensive copy
+	 *
+	 * @param key the field data key (className.fieldName:spezi)
+	 * @return the value converted to the field type or null
+	 */
+	Object getCurrentValue(final String key)
+	{
+		ConfigurableFieldData fd = snapshot.data.get(key);
+		if (fd == null)
+		{
+			return null;
+		}
+		return fd.getSharedValue();
+	}
+
+
+	/**
+	 * Publish a new snapshot. Must only be called while holding the lock of this instance.
+	 *
+	 * @param data the new field data
+	 * @param spezis the new set of spezis
+	 */
+	private void publish(final Map<String, ConfigurableFieldData> data, final Set<String> spezis)
+	{
+		snapshot = new Snapshot(snapshot.version + 1, data, spezis);
+		metrics.setFieldCount(data.size());
+	}
+
+
+	private HierarchicalConfiguration getConfig(final List<ConfigurableFieldData> fData,
+			final boolean exportMetadata)
+	{
+		final HierarchicalConfiguration config = new HierarchicalConfiguration();
+		config.setDelimiterParsingDisabled(true);
+
+		Collections.sort(fData);
+
+		String base = getBase(fData);
+		if (base == null)
+		{
+			return config;
+		}
+
+		config.getRoot().setName(base);
+		config.getRoot().addAttribute(new HierarchicalConfiguration.Node("base", base));
+
+		for (ConfigurableFieldData fieldData : fData)
+		{
+			if (fieldData.fieldType == null)
+			{
+				continue;
+			}
+			String key = getConfigKey(base, fieldData);
+			final HierarchicalConfiguration cfg = new HierarchicalConfiguration();
+			cfg.setDelimiterParsingDisabled(true);
+			cfg.addProperty(key, escape(fieldData.fieldValue));
+			if (exportMetadata)
+			{
+				cfg.addProperty(key + "[@comment]", escape(fieldData.comment));
+				cfg.addProperty(key + "[@class]", fieldData.fieldType.getName());
+			}
+			config.append(cfg);
+		}
+
+		return config;
+	}
+
+
+	private String getBase(final List<ConfigurableFieldData> fData)
+	{
+		String base = null;
+		for (ConfigurableFieldData fd : fData)
+		{
+			if (base == null)
+			{
+				base = fd.className;
+			} else
+			{
+				base = greatestCommonPrefix(base, fd.className);
+			}
+		}
+		return base;
+	}
+
+
+	private String getConfigKey(final String base, final ConfigurableFieldData fieldData)
+	{
+		String clazzKey = fieldData.className.substring(Math.min(base.length() + 1, fieldData.className.length()));
+		String spezi = fieldData.fieldSpezi.isEmpty() ? "" : ":" + fieldData.fieldSpezi;
+		return clazzKey + "." + fieldData.fieldName + spezi;
+	}
+
+
+	private List<Class<?>> getClassAndSubClasses(final Class<?> mainClazz)
+	{
+		Class<?> clazz = mainClazz;
+		final List<Class<?>> classes = new ArrayList<>();
+		while ((clazz != null) && !clazz.equals(Object.class))
+		{
+			classes.add(clazz);
+			clazz = clazz.getSuperclass();
+		}
+		return classes;
+	}
+
+
+	private String greatestCommonPrefix(final String a, final String b)
+	{
+		String[] pkgsA = a.split("\\.");
+		String[] pkgsB = b.split("\\.");
+		int minLength = Math.min(pkgsA.length, pkgsB.length);
+		StringBuilder prefix = new StringBuilder();
+		for (int i = 0; i < minLength; i++)
+		{
+			if (!pkgsA[i].equals(pkgsB[i]))
+			{
+				return prefix.toString();
+			}
+			if (i != 0)
+			{
+				prefix.append('.');
+			}
+			prefix.append(pkgsA[i]);
+		}
+		return prefix.toString();
+	}
+
+
+	private Map<Class<?>, ConfigurationNode> getClassNodesFromConfigRec(final String base,
+			final ConfigurationNode node)
+	{
+		Map<Class<?>, ConfigurationNode> classes = new LinkedHashMap<>();
+		Class<?> clazz = ConfigClassIndex.resolve(base);
+		if (clazz != null)
+		{
+			classes.put(clazz, node);
+		} else
+		{
+			// not a class. Maybe a package
+			for (ConfigurationNode child : node.getChildren())
+			{
+				classes.putAll(getClassNodesFromConfigRec(base + "." + child.getName(), child));
+			}
+
+		}
+		return classes;
+	}
+
+
+	private String escape(final String str)
+	{
+		return StringEscapeUtils.escapeXml(str);
+	}
+
+
+	private String unescape(final String str)
+	{
+		return StringEscapeUtils.unescapeXml(str);
+	}
+
+
+	private void applyFieldData(final ConfigurableFieldData fieldData, final Object obj)
+	{
+		write(obj, fieldData);
+	}
+
+
+	/**
+	 * Look up the accessor that was generated at compile time for the given class
+	 *
+	 * @param clazz the configurable class
+	 * @return the generated accessor, if present
+	 */
+	private static Optional<IConfigAccessor> findGeneratedAccessor(final Class<?> clazz)
+	{
+		String accessorName = getGeneratedAccessorName(clazz.getName());
+		try
+		{
+			Class<?> accessorClass = Class.forName(accessorName, true, clazz.getClassLoader());
+			IConfigAccessor accessor = (IConfigAccessor) accessorClass.getDeclaredConstructor().newInstance();
+			if (!clazz.getName().equals(accessor.getClassName()))
+			{
+				log.warn("Generated accessor {} belongs to {}, not to {}", accessorName, accessor.getClassName(),
+						clazz.getName());
+				return Optional.empty();
+			}
+			return Optional.of(accessor);
+		} catch (ClassNotFoundException | NoClassDefFoundError err)
+		{
+			return Optional.empty();
+		} catch (ReflectiveOperationException | ClassCastException | AbstractMethodError err)
+		{
+			log.warn("Could not instantiate generated accessor " + accessorName, err);
+			return Optional.empty();
+		}
+	}
+
+
+	/**
+	 * Get the name of the generated accessor, as in the configurable-processor.
+	 * '_' in the class name is escaped as '__' and '$' is replaced by '_1', so that names can not collide.
+	 *
+	 * @param className the binary name of a configurable class
+	 * @return the binary name of its generated accessor
+	 */
+	static String getGeneratedAccessorName(final String className)
+	{
+		int pkgEnd = className.lastIndexOf('.') + 1;
+		return className.substring(0, pkgEnd)
+				+ className.substring(pkgEnd).replace("_", "__").replace("$", "_1")
+				+ GENERATED_ACCESSOR_SUFFIX;
+	}
+
+
+	/**
+	 * Get the descriptors of all configurable fields declared in clazz,
+	 * either from the generated accessor or using reflection
+	 *
+	 * @param clazz the class to read from
+	 * @return all descriptors
+	 */
+	private List<ConfigFieldDescriptor> getFieldDescriptors(final Class<?> clazz)
+	{
+		Optional<IConfigAccessor> generated = generatedAccessors.get(clazz);
+		if (generated.isPresent())
+		{
+			return generated.get().getFields();
+		}
+		List<ConfigFieldDescriptor> descriptors = new ArrayList<>();
+		for (Field field : clazz.getDeclaredFields())
+		{
+			if (field.isAnnotationPresent(Configurable.class))
+			{
+				if ((field.getModifiers() & Modifier.FINAL) != 0)
+				{
+					log.error("Configurable field {}#{} must not be final", clazz.getName(), field.getName());
+					continue;
+				}
+				descriptors.add(ConfigFieldDescriptor.fromAnnotation(field.getName(),
+						field.getAnnotation(Configurable.class)));
+			}
+		}
+		return descriptors;
+	}
+
+
+	/**
+	 * Read values from fields and generate {@link ConfigurableFieldData}
+	 *
+	 * @param clazz the class to read from
+	 * @return a list of all found fields
+	 */
+	private List<ConfigurableFieldData> read(final Class<?> clazz)
+	{
+		List<ConfigurableFieldData> dataRead = new ArrayList<>();
+
+		for (ConfigFieldDescriptor conf : getFieldDescriptors(clazz))
+		{
+			String name = conf.getName();
+
+			FieldAccessor accessor;
+			try
+			{
+				if (conf.hasAccessors())
+				{
+					accessor = new FieldAccessor(conf);
+				} else
+				{
+					accessor = new FieldAccessor(clazz.getDeclaredField(name));
+				}
+			} catch (NoSuchFieldException | IllegalAccessException err)
+			{
+				log.error("Could not access field " + name, err);
+				continue;
+			}
+			Class<?> type = accessor.type;
+
+			String cat = conf.getCategory();
+
+			if (cat.isEmpty() || cat.equals(category))
+			{
+				String comment = conf.getComment();
+				String[] declaredSpezis = conf.getSpezis();
+				String[] defValueSpezis = conf.getDefValueSpezis();
+
+				if (declaredSpezis.length == 0)
+				{
+					declaredSpezis = new String[] { "" };
+				}
+
+				int speziId = 0;
+				for (String spezi : declaredSpezis)
+				{
+					String defValue = conf.getDefValue();
+					if (defValueSpezis.length > speziId)
+					{
+						defValue = defValueSpezis[speziId];
+					}
+					if (!"".equals(defValue))
+					{
+						try
+						{
+							defValue = s2vConv.toString(type, s2vConv.parseString(type, defValue));
+						} catch (IllegalArgumentException err1)
+						{
+							log.warn("Could not convert defValue of field " + name + ": " + defValue, err1);
+						}
+					}
+
+					String value;
+					if (!accessor.isStatic // non static field
+							|| (!spezi.isEmpty() && !defValue.isEmpty()))
+					{
+						value = defValue;
+					} else
+					{
+						// static field: read the assigned value
+						try
+						{
+							Object obj = accessor.get(null);
+							if (obj != null)
+							{
+								value = s2vConv.toString(type, obj);
+							} else
+							{
+								value = "";
+							}
+						} catch (IllegalArgumentException err1)
+						{
+							log.error("Could not get value of field " + name, err1);
+							continue;
+						}
+					}
+
+					ConfigurableFieldData fieldDataSpezi = new ConfigurableFieldData();
+					fieldDataSpezi.className = clazz.getName();
+					fieldDataSpezi.fieldName = name;
+					fieldDataSpezi.setFieldValue(value);
+					fieldDataSpezi.fieldDefValue = defValue;
+					fieldDataSpezi.fieldSpezi = spezi;
+					fieldDataSpezi.comment = comment;
+					fieldDataSpezi.fieldType = type;
+					fieldDataSpezi.accessor = accessor;
+					dataRead.add(fieldDataSpezi);
+					speziId++;
+				}
+			}
+		}
+		return dataRead;
+	}
+
+
+	/**
+	 * Write provided fieldData into its field, using the cached accessor.
+	 *
+	 * @param obj null for static fields or the field instance
+	 * @param fieldData information about what to write into the field
+	 */
+	private void write(final Object obj, final ConfigurableFieldData fieldData)
+	{
+		FieldAccessor accessor = fieldData.accessor;
+		if (!accessor.isStatic && (obj == null))
+		{
+			return;
+		}
+		Object value = fieldData.getParsedValue();
+		try
+		{
+			accessor.set(obj, value);
+		} catch (IllegalArgumentException err)
+		{
+			log.error("Could not set value on field " + fieldData.fieldName, err);
+		}
+	}
+}
@@ -0,0 +1,78 @@
+/*
+ * *********************************************************
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - Tigers Mannheim
+ * Project: TIGERS - Sumatra
+ * Date: Oct 18, 2026
+ * *********************************************************
+ */
+package com.github.g3force.configurable;
+
+/**
+ * A change of a single configurable value (class, field and spezi)
+ */
+public final class ConfigChange
+{
+	private final String className;
+	private final String fieldName;
+	private final String spezi;
+	private final String oldValue;
+	private final String newValue;
+
+
+	/**
+	 * @param className the name of the class declaring the field
+	 * @param fieldName the name of the field
+	 * @param spezi the spezi, empty for the default
+	 * @param oldValue the previous value or null, if the value was not known before
+	 * @param newValue the new value
+	 */
+	public ConfigChange(final String className, final String fieldName, final String spezi, final String oldValue,
+			final String newValue)
+	{
+		this.className = className;
+		this.fieldName = fieldName;
+		this.spezi = spezi;
+		this.oldValue = oldValue;
+		this.newValue = newValue;
+	}
+
+
+	public String getClassName()
+	{
+		return className;
+	}
+
+
+	public String getFieldName()
+	{
+		return fieldName;
+	}
+
+
+	public String getSpezi()
+	{
+		return spezi;
+	}
+
+
+	/**
+	 * @return the previous value or null, if the value was not known before
+	 */
+	public String getOldValue()
+	{
+		return oldValue;
+	}
+
+
+	public String getNewValue()
+	{
+		return newValue;
+	}
+
+
+	@Override
+	public String toString()
+	{
+		return className + "." + fieldName + ":" + spezi + " " + oldValue + " -> " + newValue;
+	}
+}
@@ -0,0 +1,150 @@
+/*
+ * *********************************************************
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - Tigers Mannheim
+ * Project: TIGERS - Sumatra
+ * Date: Oct 18, 2026
+ * *********************************************************
+ */
+package com.github.g3force.configurable;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Enumeration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+
+/**
+ * Index of all known configurable classes, used to resolve class names from config files
+ * without probing the class loader for each package and class node.
+ * <br>
+ * Classes are known from registration and from the manifest generated by the configurable-processor
+ * ({@value #MANIFEST}). Unknown names are probed once and the result is cached.
+ */
+final class ConfigClassIndex
+{
+	static final String MANIFEST = "META-INF/configurable/classes";
+
+	private static final Logger log = LogManager.getLogger(ConfigClassIndex.class.getName());
+
+	private static final Map<String, Optional<Class<?>>> classes = new ConcurrentHashMap<>();
+	private static final Set<String> manifestClasses = ConcurrentHashMap.newKeySet();
+	private static final Set<String> packages = ConcurrentHashMap.newKeySet();
+	private static volatile boolean manifestLoaded = false;
+
+
+	private ConfigClassIndex()
+	{
+	}
+
+
+	/**
+	 * @param clazz a class with configurable fields
+	 */
+	static void register(final Class<?> clazz)
+	{
+		if (classes.put(clazz.getName(), Optional.of(clazz)) == null)
+		{
+			addPackages(clazz.getName());
+		}
+	}
+
+
+	/**
+	 * Resolve a class by its name, without initializing it
+	 *
+	 * @param name the binary class name
+	 * @return the class or null, if there is no such class
+	 */
+	static Class<?> resolve(final String name)
+	{
+		loadManifest();
+		Optional<Class<?>> clazz = classes.get(name);
+		if (clazz != null)
+		{
+			return clazz.orElse(null);
+		}
+		if (!manifestClasses.contains(name) && packages.contains(name))
+		{
+			// a package of a known class
+			return null;
+		}
+		return classes.computeIfAbsent(name, ConfigClassIndex::probe).orElse(null);
+	}
+
+
+	private static Optional<Class<?>> probe(final String name)
+	{
+		try
+		{
+			return Optional.of(Class.forName(name, false, ConfigClassIndex.class.getClassLoader()));
+		} catch (ClassNotFoundException | NoClassDefFoundError err)
+		{
+			return Optional.empty();
+		}
+	}
+
+
+	private static void addPackages(final String className)
+	{
+		for (int i = className.indexOf('.'); i > 0; i = className.indexOf('.', i + 1))
+		{
+			packages.add(className.substring(0, i));
+		}
+	}
+
+
+	private static void loadManifest()
+	{
+		if (manifestLoaded)
+		{
+			return;
+		}
+		synchronized (ConfigClassIndex.class)
+		{
+			if (manifestLoaded)
+			{
+				return;
+			}
+			try
+			{
+				Enumeration<URL> urls = ConfigClassIndex.class.getClassLoader().getResources(MANIFEST);
+				while (urls.hasMoreElements())
+				{
+					readManifest(urls.nextElement());
+				}
+			} catch (IOException err)
+			{
+				log.warn("Could not read configurable class manifests", err);
+			}
+			manifestLoaded = true;
+		}
+	}
+
+
+	private static void readManifest(final URL url) throws IOException
+	{
+		try (BufferedReader reader = new BufferedReader(
+				new InputStreamReader(url.openStream(), StandardCharsets.UTF_8)))
+		{
+			String line;
+			while ((line = reader.readLine()) != null)
+			{
+				String className = line.trim();
+				if (!className.isEmpty())
+				{
+					manifestClasses.add(className);
+					addPackages(className);
+				}
+			}
+		}
+	}
+}
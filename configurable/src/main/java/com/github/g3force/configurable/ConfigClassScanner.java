@@ -0,0 +1,456 @@
+/*
+ * *********************************************************
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - Tigers Mannheim
+ * Project: TIGERS - Sumatra
+ * Date: Oct 18, 2026
+ * *********************************************************
+ */
+package com.github.g3force.configurable;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.Enumeration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.jar.JarFile;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+
+/**
+ * Finds classes with {@link Configurable} fields by reading their class files, without loading the classes.
+ * <br>
+ * The constant pool of each class file is searched for the descriptor of {@link Configurable}. Only if it is
+ * present, the field annotations are parsed to get the categories. The directories and JARs that contain the
+ * packages, as found by the class loader, are scanned in parallel.
+ */
+final class ConfigClassScanner
+{
+	private static final Logger log = LogManager.getLogger(ConfigClassScanner.class.getName());
+
+	private static final byte[] CONFIGURABLE_DESCRIPTOR = ("L" + Configurable.class.getName().replace('.', '/') + ";")
+			.getBytes(StandardCharsets.UTF_8);
+	private static final byte[] ANNOTATIONS_ATTRIBUTE = "RuntimeVisibleAnnotations".getBytes(StandardCharsets.UTF_8);
+	private static final byte[] CATEGORY_ELEMENT = "category".getBytes(StandardCharsets.UTF_8);
+	private static final String CLASS_SUFFIX = ".class";
+	private static final int MAGIC = 0xCAFEBABE;
+
+
+	private ConfigClassScanner()
+	{
+	}
+
+
+	/**
+	 * Scan the given packages
+	 *
+	 * @param loader the class loader to find the packages with
+	 * @param packages the packages to scan, including sub packages
+	 * @return the binary names of all classes with configurable fields -> the categories of their fields
+	 *         (empty for fields without category)
+	 * @throws IOException if the packages can not be looked up. Unreadable directories and JARs are skipped.
+	 */
+	static Map<String, Set<String>> scan(final ClassLoader loader, final Collection<String> packages)
+			throws IOException
+	{
+		List<String> pkgPaths = getPackagePaths(packages);
+		Map<String, Set<String>> classes = new ConcurrentSkipListMap<>();
+		findRoots(loader, pkgPaths).parallelStream().forEach(root -> scanRoot(root, pkgPaths, classes));
+		return classes;
+	}
+
+
+	/**
+	 * @return the package paths with trailing '/', without packages that are included in other packages
+	 */
+	private static List<String> getPackagePaths(final Collection<String> packages)
+	{
+		List<String> paths = packages.stream()
+				.map(pkg -> pkg.isEmpty() ? "" : pkg.replace('.', '/') + "/")
+				.distinct()
+				.collect(Collectors.toList());
+		return paths.stream()
+				.filter(path -> paths.stream().noneMatch(other -> !other.equals(path) && path.startsWith(other)))
+				.collect(Collectors.toList());
+	}
+
+
+	private static Set<Path> findRoots(final ClassLoader loader, final List<String> pkgPaths) throws IOException
+	{
+		Set<Path> roots = new LinkedHashSet<>();
+		for (String pkgPath : pkgPaths)
+		{
+			if (pkgPath.isEmpty())
+			{
+				// class loaders do not return JARs for the root package
+				for (String entry : System.getProperty("java.class.path", "").split(File.pathSeparator))
+				{
+					if (!entry.isEmpty())
+					{
+						roots.add(Paths.get(entry).toAbsolutePath().normalize());
+					}
+				}
+			}
+			Enumeration<URL> urls = loader.getResources(pkgPath);
+			while (urls.hasMoreElements())
+			{
+				Path root = getRoot(urls.nextElement(), pkgPath);
+				if (root != null)
+				{
+					roots.add(root.toAbsolutePath().normalize());
+				}
+			}
+		}
+		return roots;
+	}
+
+
+	private static Path getRoot(final URL url, final String pkgPath) throws IOException
+	{
+		try
+		{
+			if ("file".equals(url.getProtocol()))
+			{
+				Path root = Paths.get(url.toURI());
+				for (int i = pkgPath.split("/").length; i > 0 && root != null && !pkgPath.isEmpty(); i--)
+				{
+					root = root.getParent();
+				}
+				return root;
+			} else if ("jar".equals(url.getProtocol()))
+			{
+				URL jarUrl = ((JarURLConnection) url.openConnection()).getJarFileURL();
+				return "file".equals(jarUrl.getProtocol()) ? Paths.get(jarUrl.toURI()) : null;
+			}
+		} catch (URISyntaxException err)
+		{
+			log.warn("Could not scan {}", url, err);
+		}
+		return null;
+	}
+
+
+	private static void scanRoot(final Path root, final List<String> pkgPaths, final Map<String, Set<String>> classes)
+	{
+		try
+		{
+			if (Files.isDirectory(root))
+			{
+				scanDirectory(root, pkgPaths, classes);
+			} else if (Files.isRegularFile(root))
+			{
+				scanJar(root, pkgPaths, classes);
+			}
+		} catch (IOException | UncheckedIOException err)
+		{
+			log.warn("Could not scan {}", root, err);
+		}
+	}
+
+
+	private static void scanDirectory(final Path root, final List<String> pkgPaths,
+			final Map<String, Set<String>> classes) throws IOException
+	{
+		for (String pkgPath : pkgPaths)
+		{
+			Path dir = root.resolve(pkgPath);
+			if (!Files.isDirectory(dir))
+			{
+				continue;
+			}
+			try (Stream<Path> files = Files.walk(dir))
+			{
+				files.filter(file -> file.getFileName().toString().endsWith(CLASS_SUFFIX))
+						.collect(Collectors.toList())
+						.parallelStream()
+						.forEach(file -> {
+							try
+							{
+								String name = root.relativize(file).toString().replace(File.separatorChar, '/');
+								addClass(name, Files.readAllBytes(file), classes);
+							} catch (IOException err)
+							{
+								throw new UncheckedIOException(err);
+							}
+						});
+			}
+		}
+	}
+
+
+	private static void scanJar(final Path file, final List<String> pkgPaths,
+			final Map<String, Set<String>> classes) throws IOException
+	{
+		try (JarFile jar = new JarFile(file.toFile()))
+		{
+			// entries can be read concurrently from the same jar file
+			jar.stream()
+					.filter(entry -> entry.getName().endsWith(CLASS_SUFFIX)
+							&& pkgPaths.stream().anyMatch(entry.getName()::startsWith))
+					.collect(Collectors.toList())
+					.parallelStream()
+					.forEach(entry -> {
+						try (InputStream in = jar.getInputStream(entry))
+						{
+							addClass(entry.getName(), readAll(in, (int) entry.getSize()), classes);
+						} catch (IOException err)
+						{
+							throw new UncheckedIOException(err);
+						}
+					});
+		}
+	}
+
+
+	private static byte[] readAll(final InputStream in, final int sizeHint) throws IOException
+	{
+		ByteArrayOutputStream out = new ByteArrayOutputStream(sizeHint > 0 ? sizeHint : 4096);
+		byte[] buf = new byte[8192];
+		int n;
+		while ((n = in.read(buf)) > 0)
+		{
+			out.write(buf, 0, n);
+		}
+		return out.toByteArray();
+	}
+
+
+	private static void addClass(final String path, final byte[] classFile, final Map<String, Set<String>> classes)
+	{
+		if (path.endsWith("module-info.class") || path.endsWith("package-info.class"))
+		{
+			return;
+		}
+		try
+		{
+			Set<String> categories = getCategories(classFile);
+			if (categories != null)
+			{
+				String className = path.substring(0, path.length() - CLASS_SUFFIX.length()).replace('/', '.');
+				classes.put(className, categories);
+			}
+		} catch (IOException | IllegalArgumentException | BufferUnderflowException err)
+		{
+			log.debug("Could not parse class file {}", path, err);
+		}
+	}
+
+
+	/**
+	 * Get the categories of the configurable fields of a class
+	 *
+	 * @param classFile the class file content
+	 * @return the categories (empty for fields without category) or null, if there are no configurable fields
+	 * @throws IOException if a string constant is invalid
+	 */
+	static Set<String> getCategories(final byte[] classFile) throws IOException
+	{
+		ByteBuffer buf = ByteBuffer.wrap(classFile);
+		if (buf.getInt() != MAGIC)
+		{
+			throw new IllegalArgumentException("Not a class file");
+		}
+		// minor and major version
+		buf.getInt();
+
+		// offsets of the UTF8 constants, 0 for other constants
+		int[] utf8 = new int[buf.getShort() & 0xFFFF];
+		int configurableIdx = -1;
+		for (int i = 1; i < utf8.length; i++)
+		{
+			int tag = buf.get();
+			switch (tag)
+			{
+				case 1: // Utf8
+					utf8[i] = buf.position();
+					if (configurableIdx < 0 && utf8Equals(classFile, utf8[i], CONFIGURABLE_DESCRIPTOR))
+					{
+						configurableIdx = i;
+					}
+					skip(buf, buf.getShort() & 0xFFFF);
+					break;
+				case 7: // Class
+				case 8: // String
+				case 16: // MethodType
+				case 19: // Module
+				case 20: // Package
+					skip(buf, 2);
+					break;
+				case 15: // MethodHandle
+					skip(buf, 3);
+					break;
+				case 3: // Integer
+				case 4: // Float
+				case 9: // Fieldref
+				case 10: // Methodref
+				case 11: // InterfaceMethodref
+				case 12: // NameAndType
+				case 17: // Dynamic
+				case 18: // InvokeDynamic
+					skip(buf, 4);
+					break;
+				case 5: // Long
+				case 6: // Double
+					skip(buf, 8);
+					// takes two entries
+					i++;
+					break;
+				default:
+					throw new IllegalArgumentException("Unknown constant pool tag: " + tag);
+			}
+		}
+		if (configurableIdx < 0)
+		{
+			return null;
+		}
+
+		// access flags, this class, super class
+		skip(buf, 6);
+		skip(buf, 2 * (buf.getShort() & 0xFFFF));
+
+		Set<String> categories = new TreeSet<>();
+		int fieldCount = buf.getShort() & 0xFFFF;
+		for (int f = 0; f < fieldCount; f++)
+		{
+			// access flags, name, descriptor
+			skip(buf, 6);
+			int attrCount = buf.getShort() & 0xFFFF;
+			for (int a = 0; a < attrCount; a++)
+			{
+				int nameIdx = buf.getShort() & 0xFFFF;
+				int length = buf.getInt();
+				int end = buf.position() + length;
+				if (utf8Equals(classFile, utf8[nameIdx], ANNOTATIONS_ATTRIBUTE))
+				{
+					int annotationCount = buf.getShort() & 0xFFFF;
+					for (int i = 0; i < annotationCount; i++)
+					{
+						readAnnotation(buf, classFile, utf8, configurableIdx, categories);
+					}
+				}
+				buf.position(end);
+			}
+		}
+		return categories.isEmpty() ? null : categories;
+	}
+
+
+	private static void readAnnotation(final ByteBuffer buf, final byte[] classFile, final int[] utf8,
+			final int configurableIdx, final Set<String> categories) throws IOException
+	{
+		boolean configurable = (buf.getShort() & 0xFFFF) == configurableIdx;
+		String category = "";
+		int pairCount = buf.getShort() & 0xFFFF;
+		for (int i = 0; i < pairCount; i++)
+		{
+			int nameIdx = buf.getShort() & 0xFFFF;
+			if (configurable && buf.get(buf.position()) == 's'
+					&& utf8Equals(classFile, utf8[nameIdx], CATEGORY_ELEMENT))
+			{
+				buf.get();
+				category = readUtf8(classFile, utf8[buf.getShort() & 0xFFFF]);
+			} else
+			{
+				skipElementValue(buf);
+			}
+		}
+		if (configurable)
+		{
+			categories.add(category);
+		}
+	}
+
+
+	private static void skipElementValue(final ByteBuffer buf)
+	{
+		int tag = buf.get();
+		switch (tag)
+		{
+			case 'e':
+				skip(buf, 4);
+				break;
+			case '@':
+				// type
+				skip(buf, 2);
+				int pairCount = buf.getShort() & 0xFFFF;
+				for (int i = 0; i < pairCount; i++)
+				{
+					skip(buf, 2);
+					skipElementValue(buf);
+				}
+				break;
+			case '[':
+				int count = buf.getShort() & 0xFFFF;
+				for (int i = 0; i < count; i++)
+				{
+					skipElementValue(buf);
+				}
+				break;
+			default:
+				// constants and classes
+				skip(buf, 2);
+				break;
+		}
+	}
+
+
+	private static void skip(final ByteBuffer buf, final int count)
+	{
+		buf.position(buf.position() + count);
+	}
+
+
+	private static boolean utf8Equals(final byte[] classFile, final int offset, final byte[] expected)
+	{
+		if (offset == 0)
+		{
+			return false;
+		}
+		int length = ((classFile[offset] & 0xFF) << 8) | (classFile[offset + 1] & 0xFF);
+		if (length != expected.length)
+		{
+			return false;
+		}
+		for (int i = 0; i < length; i++)
+		{
+			if (classFile[offset + 2 + i] != expected[i])
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+
+	private static String readUtf8(final byte[] classFile, final int offset) throws IOException
+	{
+		if (offset == 0)
+		{
+			throw new IllegalArgumentException("Not a UTF8 constant");
+		}
+		// class files use modified UTF-8, as read by DataInput
+		return new DataInputStream(new ByteArrayInputStream(classFile, offset, classFile.length - offset)).readUTF();
+	}
+}
@@ -0,0 +1,700 @@
+/*
+ * *********************************************************
+ * Copyright (c) 2009 - 2011, DHBW Mannheim - Tigers Mannheim
+ * Project: TIGERS - Sumatra
+ * Date: 28.11.2011
+ * Author(s): Gero
+ * *********************************************************
+ */
+package com.github.g3force.configurable;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javax.xml.stream.XMLStreamException;
+
+import org.apache.commons.configuration.ConfigurationException;
+import org.apache.commons.configuration.HierarchicalConfiguration;
+import org.apache.commons.configuration.XMLConfiguration;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+
+/**
+ * Base implementation for {@link IConfigClient}.
+ * All operations that touch the state of this category synchronize on the client itself.
+ */
+public class ConfigClient implements IConfigClient
+{
+	private static final Logger log = LogManager.getLogger(ConfigClient.class.getName());
+
+	private final String name;
+	private final String path;
+	private final List<IConfigObserver> observers = new CopyOnWriteArrayList<>();
+
+	private final ConfigAnnotationProcessor cap;
+	private final ConfigMetrics.CategoryMetrics metrics;
+	private final Set<Class<?>> classes = new LinkedHashSet<>();
+	/** classes registered from static initializers, not yet added to {@link #classes} */
+	private final Queue<Class<?>> pending = new ConcurrentLinkedQueue<>();
+	/** guards the config file state, never held while static fields are accessed */
+	private final Object fileLock = new Object();
+	/** values that were loaded into the field data, but not applied yet, by key. Guarded by itself. */
+	private final Map<String, ConfigChange> unappliedChanges = new LinkedHashMap<>();
+
+	private HierarchicalConfiguration config = new HierarchicalConfiguration();
+	private boolean initializing = false;
+	private volatile boolean initialized = false;
+	private volatile boolean fileLoaded = false;
+	private volatile int backupCount = 0;
+	private volatile boolean useSnapshot = false;
+	/** modification time and size of the config file when it was last loaded or saved, guarded by fileLock */
+	private FileTime fileTime = null;
+	private long fileSize = -1;
+	/** the config file, parsed ahead of time by {@link ConfigRegistration#preload()}, guarded by fileLock */
+	private CompletableFuture<ConfigFileContent> preloaded = null;
+
+
+	public ConfigClient(final String path, final String name)
+	{
+		this.name = name;
+		this.path = path;
+		cap = new ConfigAnnotationProcessor(name);
+		metrics = ConfigMetrics.forCategory(name);
+	}
+
+
+	@Override
+	public void addObserver(final IConfigObserver observer)
+	{
+		observers.add(observer);
+	}
+
+
+	@Override
+	public void removeObserver(final IConfigObserver observer)
+	{
+		observers.remove(observer);
+	}
+
+
+	/**
+	 * Load the config file and apply all values, if not done yet.
+	 * Reentrant calls from the same thread (e.g. static initializers of configurable classes) return immediately.
+	 */
+	void initialize()
+	{
+		if (initialized)
+		{
+			return;
+		}
+		synchronized (this)
+		{
+			if (initializing)
+			{
+				return;
+			}
+			initializing = true;
+			try
+			{
+				loadFileConfigOnce();
+				drainPending();
+				applyConfig();
+				initialized = true;
+			} finally
+			{
+				// allow a retry if the first initialization failed
+				initializing = false;
+			}
+		}
+	}
+
+
+	/**
+	 * Register a class from its static initializer. The class is queued without locking this client
+	 * and only its own static fields are applied, with the values of the config file.
+	 * Applying all values to all classes is left to {@link #initialize()}, which runs on first use of the category.
+	 *
+	 * @param clazz the class to register
+	 */
+	void registerClass(final Class<?> clazz)
+	{
+		pending.add(clazz);
+		loadFileConfigOnce();
+		cap.registerClass(clazz);
+	}
+
+
+	private void drainPending()
+	{
+		Class<?> clazz;
+		while ((clazz = pending.poll()) != null)
+		{
+			classes.add(clazz);
+		}
+	}
+
+
+	/**
+	 * Add a configurable class
+	 *
+	 * @param clazz the class to add
+	 */
+	public synchronized void putClass(final Class<?> clazz)
+	{
+		drainPending();
+		classes.add(clazz);
+		cap.loadClass(clazz, false);
+	}
+
+
+	/**
+	 * Add configurable classes at once
+	 *
+	 * @param newClasses the classes to add
+	 */
+	public synchronized void putClasses(final Collection<Class<?>> newClasses)
+	{
+		drainPending();
+		classes.addAll(newClasses);
+		cap.loadClasses(newClasses, false);
+	}
+
+
+	/**
+	 * Load the current config and apply all values to all static fields and to all tracked instances.
+	 * Observers are notified afterwards with all values that changed since the last apply.
+	 */
+	public synchronized void applyConfig()
+	{
+		addUnappliedChanges(cap.loadConfiguration(config));
+		List<ConfigChange> changes = takeUnappliedChanges();
+		cap.applyAll();
+		cap.applyAllToInstances();
+		notifyAppliedConfig(changes);
+	}
+
+
+	/**
+	 * Load the current config and apply only the values that changed since the last apply,
+	 * e.g. by {@link #loadConfig()}. Observers are notified afterwards with these values.
+	 */
+	@SuppressWarnings("WeakerAccess")
+	public synchronized void applyChangedConfig()
+	{
+		addUnappliedChanges(cap.loadConfiguration(config));
+		List<ConfigChange> changes = takeUnappliedChanges();
+		cap.applyChanges(changes);
+		notifyAppliedConfig(changes);
+	}
+
+
+	/**
+	 * Remember values that were loaded into the field data, but not applied yet.
+	 * A value that changes again is merged into a single change, a value that changes back is dropped.
+	 *
+	 * @param changes the changes returned by the config annotation processor
+	 */
+	private void addUnappliedChanges(final List<ConfigChange> changes)
+	{
+		synchronized (unappliedChanges)
+		{
+			for (ConfigChange change : changes)
+			{
+				String key = ConfigAnnotationProcessor.getKey(change.getClassName(), change.getFieldName(),
+						change.getSpezi());
+				ConfigChange previous = unappliedChanges.remove(key);
+				if (previous == null)
+				{
+					unappliedChanges.put(key, change);
+				} else if (!Objects.equals(previous.getOldValue(), change.getNewValue()))
+				{
+					unappliedChanges.put(key, new ConfigChange(change.getClassName(), change.getFieldName(),
+							change.getSpezi(), previous.getOldValue(), change.getNewValue()));
+				}
+			}
+		}
+	}
+
+
+	/**
+	 * @return all values that changed since the last apply, which are considered applied afterwards
+	 */
+	private List<ConfigChange> takeUnappliedChanges()
+	{
+		synchronized (unappliedChanges)
+		{
+			List<ConfigChange> changes = new ArrayList<>(unappliedChanges.values());
+			unappliedChanges.clear();
+			return changes;
+		}
+	}
+
+
+	@Override
+	public HierarchicalConfiguration getFileConfig()
+	{
+		String fileName = name + ".xml";
+		Path fPath = Paths.get(path, fileName);
+		String filePath = fPath.toString();
+		XMLConfiguration cfg = new XMLConfiguration();
+		try
+		{
+			cfg.setDelimiterParsingDisabled(true);
+			cfg.setFileName(fileName);
+			if (fPath.toFile().exists())
+			{
+				cfg.load(filePath);
+			}
+		} catch (final ConfigurationException err)
+		{
+			log.error("Unable to load config '" + name + "' from '" + filePath + "':", err);
+		}
+
+		return cfg;
+	}
+
+
+	/**
+	 * Reload the config file, if it was modified since it was last loaded or saved by this client.
+	 * Only values that changed are applied. Observers are notified, if there are changes.
+	 *
+	 * @return true, if the file was modified and reloaded
+	 */
+	@SuppressWarnings("WeakerAccess")
+	public synchronized boolean reloadIfModified()
+	{
+		Path fPath = getFilePath();
+		List<ConfigChange> changes;
+		synchronized (fileLock)
+		{
+			if (!updateFileStamp(fPath))
+			{
+				return false;
+			}
+			addUnappliedChanges(readFileConfig(fPath));
+		}
+		changes = takeUnappliedChanges();
+		if (!changes.isEmpty())
+		{
+			cap.applyChanges(changes);
+			config = cap.getEffectiveConfig();
+			notifyAppliedConfig(changes);
+		}
+		return true;
+	}
+
+
+	/**
+	 * Stream the config file into the field data, if not done yet
+	 */
+	private void loadFileConfigOnce()
+	{
+		if (fileLoaded)
+		{
+			return;
+		}
+		synchronized (fileLock)
+		{
+			if (!fileLoaded)
+			{
+				loadFileConfig();
+			}
+		}
+	}
+
+
+	/**
+	 * Stream the config file into the field data, without applying it.
+	 * The changed values are applied by the next {@link #applyConfig()} or {@link #applyChangedConfig()}.
+	 */
+	private void loadFileConfig()
+	{
+		synchronized (fileLock)
+		{
+			Path fPath = getFilePath();
+			updateFileStamp(fPath);
+			ConfigFileContent content = takePreloadedConfig();
+			if (content != null && content.isCurrent(fileTime, fileSize))
+			{
+				addUnappliedChanges(cap.loadConfiguration(content));
+			} else
+			{
+				addUnappliedChanges(readFileConfig(fPath));
+			}
+			fileLoaded = true;
+		}
+	}
+
+
+	/**
+	 * Use the given parsed config file for the initial load, if the file did not change in between
+	 *
+	 * @param content the (future) parsed config file
+	 */
+	void setPreloadedConfig(final CompletableFuture<ConfigFileContent> content)
+	{
+		synchronized (fileLock)
+		{
+			if (!fileLoaded)
+			{
+				preloaded = content;
+			}
+		}
+	}
+
+
+	private ConfigFileContent takePreloadedConfig()
+	{
+		CompletableFuture<ConfigFileContent> content = preloaded;
+		preloaded = null;
+		if (content == null)
+		{
+			return null;
+		}
+		try
+		{
+			return content.join();
+		} catch (CompletionException | CancellationException err)
+		{
+			log.warn("Could not preload config '{}'", name, err);
+			return null;
+		}
+	}
+
+
+	private List<ConfigChange> readFileConfig(final Path fPath)
+	{
+		if (!Files.exists(fPath))
+		{
+			return Collections.emptyList();
+		}
+		ConfigFileContent snapshot = readSnapshot(fPath);
+		if (snapshot != null)
+		{
+			return cap.loadConfiguration(snapshot);
+		}
+		try (InputStream in = Files.newInputStream(fPath))
+		{
+			return cap.loadConfiguration(in);
+		} catch (final XMLStreamException | IOException err)
+		{
+			log.error("Unable to load config '" + name + "' from '" + fPath + "':", err);
+		}
+		return Collections.emptyList();
+	}
+
+
+	private ConfigFileContent readSnapshot(final Path fPath)
+	{
+		if (!useSnapshot)
+		{
+			return null;
+		}
+		Path snapshotPath = ConfigSnapshotFile.getPath(fPath);
+		try
+		{
+			return ConfigSnapshotFile.read(snapshotPath, fileTime, fileSize);
+		} catch (IOException err)
+		{
+			log.warn("Could not read config snapshot {}, reading {} instead", snapshotPath, fPath, err);
+			return null;
+		}
+	}
+
+
+	/**
+	 * Remember modification time and size of the config file
+	 *
+	 * @param fPath the config file
+	 * @return true, if the file changed since the last call
+	 */
+	private boolean updateFileStamp(final Path fPath)
+	{
+		FileTime time = null;
+		long size = -1;
+		try
+		{
+			BasicFileAttributes attrs = Files.readAttributes(fPath, BasicFileAttributes.class);
+			time = attrs.lastModifiedTime();
+			size = attrs.size();
+		} catch (IOException err)
+		{
+			// file does not exist (anymore)
+		}
+		boolean changed = !Objects.equals(time, fileTime) || size != fileSize;
+		fileTime = time;
+		fileSize = size;
+		return changed;
+	}
+
+
+	private Path getFilePath()
+	{
+		return Paths.get(path, name + ".xml");
+	}
+
+
+	public void notifyAppliedConfig()
+	{
+		notifyAppliedConfig(Collections.emptyList());
+	}
+
+
+	/**
+	 * @param changes the values that changed with the last apply
+	 */
+	public void notifyAppliedConfig(final List<ConfigChange> changes)
+	{
+		List<ConfigChange> unmodifiableChanges = Collections.unmodifiableList(changes);
+		for (IConfigObserver o : observers)
+		{
+			o.afterApply(this, unmodifiableChanges);
+		}
+	}
+
+
+	/**
+	 * Set the number of backups to keep when saving. The previous file is kept as name.xml.1,
+	 * older ones are rotated up to name.xml.{count}.
+	 *
+	 * @param count the number of backups, 0 to disable backups (default)
+	 */
+	@SuppressWarnings("WeakerAccess")
+	public void setBackupCount(final int count)
+	{
+		if (count < 0)
+		{
+			throw new IllegalArgumentException("Backup count must not be negative: " + count);
+		}
+		backupCount = count;
+	}
+
+
+	/**
+	 * Write a binary snapshot of the config next to the config file on save and prefer it on load,
+	 * as long as the config file was not modified since. The snapshot is only a cache, the config file
+	 * stays the source of truth.
+	 *
+	 * @param useSnapshot whether to use a snapshot (default: false)
+	 */
+	@SuppressWarnings("WeakerAccess")
+	public void setUseSnapshot(final boolean useSnapshot)
+	{
+		this.useSnapshot = useSnapshot;
+	}
+
+
+	/**
+	 * Save to file. The config is written to a temporary file in the same directory, forced to disk
+	 * and then moved over the config file, so that the file is never left partially written.
+	 *
+	 * @return true, if the config was saved
+	 */
+	@Override
+	public synchronized boolean saveCurrentConfig()
+	{
+		long start = ConfigMetrics.start();
+		Object event = ConfigEvents.beginSave();
+		Path target = getFilePath().toAbsolutePath();
+		ConfigSnapshotFile snapshot = useSnapshot ? new ConfigSnapshotFile() : null;
+		Path tmp = null;
+		long bytes = 0;
+		boolean saved = false;
+		try
+		{
+			// not Files.createTempFile, as it would restrict the permissions of the resulting config file
+			tmp = target.resolveSibling(target.getFileName() + "." + Long.toHexString(System.nanoTime()) + ".tmp");
+			try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+					OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel)))
+			{
+				cap.writeMinimalConfig(out, snapshot);
+				out.flush();
+				channel.force(true);
+				bytes = channel.size();
+			}
+			rotateBackups(target);
+			moveAtomically(tmp, target);
+			tmp = null;
+			synchronized (fileLock)
+			{
+				updateFileStamp(target);
+				writeSnapshot(snapshot, target);
+			}
+			saved = true;
+		} catch (final XMLStreamException err)
+		{
+			log.error("Unable to save config '{}' to '{}'.", name, target, err);
+			return false;
+		} catch (final IOException err)
+		{
+			log.error("Unable to access the file to save the config to: {}", target, err);
+			return false;
+		} finally
+		{
+			deleteTempFile(tmp);
+			metrics.record(ConfigOperation.SAVE, start);
+			ConfigEvents.commitSave(event, name, target.toString(), bytes, saved);
+		}
+
+		return true;
+	}
+
+
+	private void writeSnapshot(final ConfigSnapshotFile snapshot, final Path target)
+	{
+		if (snapshot == null || fileTime == null)
+		{
+			return;
+		}
+		Path snapshotPath = ConfigSnapshotFile.getPath(target);
+		try
+		{
+			snapshot.write(snapshotPath, fileTime, fileSize);
+		} catch (IOException err)
+		{
+			// the snapshot is only a cache, the config file is saved already
+			log.warn("Could not write config snapshot {}", snapshotPath, err);
+		}
+	}
+
+
+	private void rotateBackups(final Path target) throws IOException
+	{
+		int count = backupCount;
+		if (count == 0 || !Files.exists(target))
+		{
+			return;
+		}
+		for (int i = count - 1; i > 0; i--)
+		{
+			Path backup = getBackupPath(target, i);
+			if (Files.exists(backup))
+			{
+				Files.move(backup, getBackupPath(target, i + 1), StandardCopyOption.REPLACE_EXISTING);
+			}
+		}
+		// copy, so that the config file exists until it is replaced
+		Files.copy(target, getBackupPath(target, 1), StandardCopyOption.REPLACE_EXISTING);
+	}
+
+
+	private Path getBackupPath(final Path target, final int index)
+	{
+		return target.resolveSibling(target.getFileName() + "." + index);
+	}
+
+
+	private void moveAtomically(final Path source, final Path target) throws IOException
+	{
+		try
+		{
+			Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		} catch (AtomicMoveNotSupportedException err)
+		{
+			log.debug("Atomic move not supported for {}, falling back to a plain move", target, err);
+			Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+		}
+		// persist the rename itself. Not all platforms allow to open a directory, so this is best effort only.
+		try (FileChannel dir = FileChannel.open(target.getParent(), StandardOpenOption.READ))
+		{
+			dir.force(true);
+		} catch (IOException err)
+		{
+			log.trace("Could not sync directory {}", target.getParent(), err);
+		}
+	}
+
+
+	private void deleteTempFile(final Path tmp)
+	{
+		if (tmp == null)
+		{
+			return;
+		}
+		try
+		{
+			Files.deleteIfExists(tmp);
+		} catch (IOException err)
+		{
+			log.warn("Could not delete temporary file {}", tmp, err);
+		}
+	}
+
+
+	@Override
+	public final String getName()
+	{
+		return name;
+	}
+
+
+	@Override
+	public final String getPath()
+	{
+		return path;
+	}
+
+
+	@Override
+	public final synchronized HierarchicalConfiguration loadConfig()
+	{
+		loadFileConfig();
+		drainPending();
+		classes.forEach(clazz -> cap.loadClass(clazz, false));
+		config = cap.getEffectiveConfig();
+		return config;
+	}
+
+
+	@Override
+	public final synchronized void readClasses()
+	{
+		drainPending();
+		classes.forEach(clazz -> cap.loadClass(clazz, true));
+		config = cap.getEffectiveConfig();
+	}
+
+
+	@Override
+	public final synchronized HierarchicalConfiguration getConfig()
+	{
+		return config;
+	}
+
+
+	/**
+	 * @return the cap
+	 */
+	final ConfigAnnotationProcessor getCap()
+	{
+		return cap;
+	}
+}
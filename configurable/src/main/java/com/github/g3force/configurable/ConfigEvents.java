@@ -0,0 +1,161 @@
+/*
+ * *********************************************************
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - Tigers Mannheim
+ * Project: TIGERS - Sumatra
+ * Date: Oct 18, 2026
+ * *********************************************************
+ */
+package com.github.g3force.configurable;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+
+/**
+ * Emits Java Flight Recorder events for config operations, if JFR is available on the runtime
+ * and the library was built with the JFR binding ({@code ConfigJfrEvents}).
+ * <br>
+ * Each operation calls a begin method and passes the returned event to the matching commit method.
+ * If JFR is not available or the event is disabled, begin returns null and commit does nothing.
+ */
+final class ConfigEvents
+{
+	private static final Logger log = LogManager.getLogger(ConfigEvents.class.getName());
+
+	private static final String JFR_RECORDER = "com.github.g3force.configurable.ConfigJfrEvents";
+
+	private static final IConfigEventRecorder RECORDER = loadRecorder();
+
+
+	private ConfigEvents()
+	{
+	}
+
+
+	private static IConfigEventRecorder loadRecorder()
+	{
+		try
+		{
+			Class.forName("jdk.jfr.Event", false, ConfigEvents.class.getClassLoader());
+			IConfigEventRecorder recorder = (IConfigEventRecorder) Class
+					.forName(JFR_RECORDER, true, ConfigEvents.class.getClassLoader())
+					.getDeclaredConstructor().newInstance();
+			// initialize the event types
+			recorder.beginLoad();
+			return recorder;
+		} catch (ReflectiveOperationException | LinkageError err)
+		{
+			log.debug("Flight recorder is not available, no config events are emitted", err);
+			return null;
+		}
+	}
+
+
+	static Object beginLoad()
+	{
+		return RECORDER == null ? null : RECORDER.beginLoad();
+	}
+
+
+	/**
+	 * @param event the result of {@link #beginLoad()}
+	 * @param category the category
+	 * @param changes the number of changed values
+	 */
+	static void commitLoad(final Object event, final String category, final int changes)
+	{
+		if (event != null)
+		{
+			RECORDER.commitLoad(event, category, changes);
+		}
+	}
+
+
+	static Object beginParse()
+	{
+		return RECORDER == null ? null : RECORDER.beginParse();
+	}
+
+
+	/**
+	 * @param event the result of {@link #beginParse()}
+	 * @param format 'xml' or 'snapshot'
+	 * @param entries the number of parsed field entries
+	 */
+	static void commitParse(final Object event, final String format, final int entries)
+	{
+		if (event != null)
+		{
+			RECORDER.commitParse(event, format, entries);
+		}
+	}
+
+
+	static Object beginApply()
+	{
+		return RECORDER == null ? null : RECORDER.beginApply();
+	}
+
+
+	/**
+	 * @param event the result of {@link #beginApply()}
+	 * @param category the category
+	 * @param spezi the applied spezi or null, if all spezis were applied
+	 * @param target the class of the instance or null, if static fields were applied
+	 * @param fieldCount the number of applied field values
+	 */
+	static void commitApply(final Object event, final String category, final String spezi, final Class<?> target,
+			final int fieldCount)
+	{
+		if (event != null)
+		{
+			RECORDER.commitApply(event, category, spezi, target, fieldCount);
+		}
+	}
+
+
+	static Object beginOverride()
+	{
+		return RECORDER == null ? null : RECORDER.beginOverride();
+	}
+
+
+	/**
+	 * @param event the result of {@link #beginOverride()}
+	 * @param category the category
+	 * @param clazz the class of the overridden field
+	 * @param fieldName the name of the overridden field
+	 * @param value the new value
+	 */
+	static void commitOverride(final Object event, final String category, final Class<?> clazz,
+			final String fieldName, final String value)
+	{
+		if (event != null)
+		{
+			RECORDER.commitOverride(event, category, clazz, fieldName, value);
+		}
+	}
+
+
+	static Object beginSave()
+	{
+		return RECORDER == null ? null : RECORDER.beginSave();
+	}
+
+
+	/**
+	 * @param event the result of {@link #beginSave()}
+	 * @param category the category
+	 * @param file the config file
+	 * @param bytes the size of the written file
+	 * @param success whether the file was saved
+	 */
+	static void commitSave(final Object event, final String category, final String file, final long bytes,
+			final boolean success)
+	{
+		if (event != null)
+		{
+			RECORDER.commitSave(event, category, file, bytes, success);
+		}
+	}
+}
@@ -0,0 +1,143 @@
+/*
+ * *********************************************************
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - Tigers Mannheim
+ * Project: TIGERS - Sumatra
+ * Date: Oct 18, 2026
+ * *********************************************************
+ */
+package com.github.g3force.configurable;
+
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+
+/**
+ * Compile-time description of a {@link Configurable} field, as provided by an {@link IConfigAccessor}.
+ * The setter and getter are null, if the field can not be accessed from generated code (e.g. private fields).
+ * Reflection is used for those fields.
+ */
+public final class ConfigFieldDescriptor
+{
+	private final String name;
+	private final Class<?> type;
+	private final boolean isStatic;
+	private final String comment;
+	private final String[] spezis;
+	private final String defValue;
+	private final String[] defValueSpezis;
+	private final String category;
+	private final BiConsumer<Object, Object> setter;
+	private final Function<Object, Object> getter;
+
+
+	/**
+	 * @param name the field name
+	 * @param type the field type, may be null if there are no setter and getter
+	 * @param isStatic true, if the field is static
+	 * @param comment see {@link Configurable#comment()}
+	 * @param spezis see {@link Configurable#spezis()}
+	 * @param defValue see {@link Configurable#defValue()}
+	 * @param defValueSpezis see {@link Configurable#defValueSpezis()}
+	 * @param category see {@link Configurable#category()}
+	 * @param setter sets a value on an instance (null for static fields) or null
+	 * @param getter gets the value from an instance (null for static fields) or null
+	 */
+	public ConfigFieldDescriptor(final String name, final Class<?> type, final boolean isStatic,
+			final String comment, final String[] spezis, final String defValue, final String[] defValueSpezis,
+			final String category, final BiConsumer<Object, Object> setter, final Function<Object, Object> getter)
+	{
+		this.name = name;
+		this.type = type;
+		this.isStatic = isStatic;
+		this.comment = comment;
+		this.spezis = spezis;
+		this.defValue = defValue;
+		this.defValueSpezis = defValueSpezis;
+		this.category = category;
+		this.setter = setter;
+		this.getter = getter;
+	}
+
+
+	/**
+	 * Create a descriptor from a field using reflection.
+	 *
+	 * @param name the field name
+	 * @param conf the annotation of the field
+	 * @return a new descriptor without setter and getter
+	 */
+	static ConfigFieldDescriptor fromAnnotation(final String name, final Configurable conf)
+	{
+		return new ConfigFieldDescriptor(name, null, false, conf.comment(), conf.spezis(), conf.defValue(),
+				conf.defValueSpezis(), conf.category(), null, null);
+	}
+
+
+	public String getName()
+	{
+		return name;
+	}
+
+
+	public Class<?> getType()
+	{
+		return type;
+	}
+
+
+	public boolean isStatic()
+	{
+		return isStatic;
+	}
+
+
+	public String getComment()
+	{
+		return comment;
+	}
+
+
+	public String[] getSpezis()
+	{
+		return spezis.clone();
+	}
+
+
+	public String getDefValue()
+	{
+		return defValue;
+	}
+
+
+	public String[] getDefValueSpezis()
+	{
+		return defValueSpezis.clone();
+	}
+
+
+	public String getCategory()
+	{
+		return category;
+	}
+
+
+	public BiConsumer<Object, Object> getSetter()
+	{
+		return setter;
+	}
+
+
+	public Function<Object, Object> getGetter()
+	{
+		return getter;
+	}
+
+
+	/**
+	 * @return true, if setter and getter are available
+	 */
+	public boolean hasAccessors()
+	{
+		return (setter != null) && (getter != null);
+	}
+}
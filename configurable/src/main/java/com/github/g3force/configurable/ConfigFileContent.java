@@ -0,0 +1,127 @@
+/*
+ * *********************************************************
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - Tigers Mannheim
+ * Project: TIGERS - Sumatra
+ * Date: Oct 18, 2026
+ * *********************************************************
+ */
+package com.github.g3force.configurable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import javax.xml.stream.XMLStreamException;
+
+
+/**
+ * The parsed field entries of a config file, together with the modification time and size
+ * of the file when it was read. It can be parsed ahead of time and loaded later,
+ * if the file did not change in between.
+ */
+final class ConfigFileContent
+{
+	private final FileTime lastModified;
+	private final long size;
+	private final List<Entry> entries;
+
+
+	ConfigFileContent(final FileTime lastModified, final long size, final List<Entry> entries)
+	{
+		this.lastModified = lastModified;
+		this.size = size;
+		this.entries = Collections.unmodifiableList(entries);
+	}
+
+
+	/**
+	 * Parse the given config file
+	 *
+	 * @param file the config file
+	 * @return the parsed content
+	 * @throws IOException if the file can not be read
+	 * @throws XMLStreamException if the file is not well-formed
+	 */
+	static ConfigFileContent read(final Path file) throws IOException, XMLStreamException
+	{
+		BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+		List<Entry> entries = new ArrayList<>();
+		try (InputStream in = Files.newInputStream(file))
+		{
+			ConfigXmlReader.read(in, (clazz, nodeName, value, comment) -> entries
+					.add(new Entry(clazz, nodeName, value, comment)));
+		}
+		return new ConfigFileContent(attrs.lastModifiedTime(), attrs.size(), entries);
+	}
+
+
+	/**
+	 * Read the given config file, preferring its binary snapshot if it is up to date
+	 *
+	 * @param file the config file
+	 * @param useSnapshot whether to use the snapshot of the config file
+	 * @return the content
+	 * @throws IOException if the file can not be read
+	 * @throws XMLStreamException if the file is not well-formed
+	 */
+	static ConfigFileContent read(final Path file, final boolean useSnapshot) throws IOException, XMLStreamException
+	{
+		if (useSnapshot)
+		{
+			BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+			ConfigFileContent content = ConfigSnapshotFile.read(ConfigSnapshotFile.getPath(file),
+					attrs.lastModifiedTime(), attrs.size());
+			if (content != null)
+			{
+				return content;
+			}
+		}
+		return read(file);
+	}
+
+
+	/**
+	 * @param fileTime the current modification time of the file
+	 * @param fileSize the current size of the file
+	 * @return true, if the content is still up to date
+	 */
+	boolean isCurrent(final FileTime fileTime, final long fileSize)
+	{
+		return lastModified.equals(fileTime) && size == fileSize;
+	}
+
+
+	/**
+	 * @return the field entries in document order
+	 */
+	List<Entry> getEntries()
+	{
+		return entries;
+	}
+
+	/**
+	 * A field entry of a config file, see {@link ConfigXmlReader.IFieldConsumer}
+	 */
+	static final class Entry
+	{
+		final Class<?> clazz;
+		final String nodeName;
+		final String value;
+		final String comment;
+
+
+		Entry(final Class<?> clazz, final String nodeName, final String value, final String comment)
+		{
+			this.clazz = clazz;
+			this.nodeName = nodeName;
+			this.value = value;
+			this.comment = comment;
+		}
+	}
+}
@@ -0,0 +1,171 @@
+/*
+ * *********************************************************
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - Tigers Mannheim
+ * Project: TIGERS - Sumatra
+ * Date: Oct 18, 2026
+ * *********************************************************
+ */
+package com.github.g3force.configurable;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+
+/**
+ * Watches a config directory and reloads config clients whose file was modified externally.
+ * <br>
+ * Events are debounced per category, so that a burst of writes (e.g. by an editor) results in a single reload.
+ * Saves of the config clients themselves are ignored by {@link ConfigClient#reloadIfModified()}.
+ */
+final class ConfigFileWatcher implements Runnable
+{
+	private static final Logger log = LogManager.getLogger(ConfigFileWatcher.class.getName());
+	private static final String FILE_SUFFIX = ".xml";
+
+	private final Path dir;
+	private final Map<String, ConfigClient> clients;
+	private final long debounceNs;
+	private final WatchService watchService;
+	private final Thread thread;
+	/** category -> time (nanos) when it should be reloaded. Only accessed by the watcher thread */
+	private final Map<String, Long> due = new HashMap<>();
+
+
+	/**
+	 * @param dir the directory to watch
+	 * @param clients the config clients by category. Only existing clients are reloaded.
+	 * @param debounceMs the time to wait for further events of a category before reloading it
+	 * @throws IOException if the directory can not be watched
+	 */
+	ConfigFileWatcher(final Path dir, final Map<String, ConfigClient> clients, final long debounceMs)
+			throws IOException
+	{
+		this.dir = dir.toAbsolutePath().normalize();
+		this.clients = clients;
+		debounceNs = TimeUnit.MILLISECONDS.toNanos(debounceMs);
+		watchService = this.dir.getFileSystem().newWatchService();
+		this.dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+		thread = new Thread(this, "ConfigWatcher");
+		thread.setDaemon(true);
+	}
+
+
+	void start()
+	{
+		thread.start();
+	}
+
+
+	void stop()
+	{
+		try
+		{
+			watchService.close();
+		} catch (IOException err)
+		{
+			log.warn("Could not close watch service of {}", dir, err);
+		}
+	}
+
+
+	@Override
+	public void run()
+	{
+		try
+		{
+			while (!Thread.currentThread().isInterrupted())
+			{
+				WatchKey key = due.isEmpty() ? watchService.take()
+						: watchService.poll(getNextDue() - System.nanoTime(), TimeUnit.NANOSECONDS);
+				if (key != null)
+				{
+					handleEvents(key);
+				}
+				reloadDue();
+			}
+		} catch (ClosedWatchServiceException | InterruptedException err)
+		{
+			log.debug("Stopped watching {}", dir);
+		}
+	}
+
+
+	private void handleEvents(final WatchKey key)
+	{
+		long dueTime = System.nanoTime() + debounceNs;
+		for (WatchEvent<?> event : key.pollEvents())
+		{
+			if (event.kind() == StandardWatchEventKinds.OVERFLOW)
+			{
+				clients.keySet().forEach(cat -> due.put(cat, dueTime));
+				continue;
+			}
+			String fileName = event.context().toString();
+			if (fileName.endsWith(FILE_SUFFIX))
+			{
+				due.put(fileName.substring(0, fileName.length() - FILE_SUFFIX.length()), dueTime);
+			}
+		}
+		key.reset();
+	}
+
+
+	private long getNextDue()
+	{
+		long next = Long.MAX_VALUE;
+		for (long time : due.values())
+		{
+			next = Math.min(next, time);
+		}
+		return next;
+	}
+
+
+	private void reloadDue()
+	{
+		long now = System.nanoTime();
+		Iterator<Map.Entry<String, Long>> it = due.entrySet().iterator();
+		while (it.hasNext())
+		{
+			Map.Entry<String, Long> entry = it.next();
+			if (entry.getValue() - now > 0)
+			{
+				continue;
+			}
+			it.remove();
+			ConfigClient cc = clients.get(entry.getKey());
+			if (cc != null && dir.equals(Paths.get(cc.getPath()).toAbsolutePath().normalize()))
+			{
+				reload(cc);
+			}
+		}
+	}
+
+
+	private void reload(final ConfigClient cc)
+	{
+		try
+		{
+			if (cc.reloadIfModified())
+			{
+				log.info("Reloaded modified config '{}'", cc.getName());
+			}
+		} catch (RuntimeException err)
+		{
+			log.error("Could not reload config '{}'", cc.getName(), err);
+		}
+	}
+}
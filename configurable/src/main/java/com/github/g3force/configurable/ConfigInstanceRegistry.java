@@ -0,0 +1,128 @@
+/*
+ * *********************************************************
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - Tigers Mannheim
+ * Project: TIGERS - Sumatra
+ * Date: Oct 18, 2026
+ * *********************************************************
+ */
+package com.github.g3force.configurable;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+/**
+ * Live instances of configurable classes together with their spezi, used to push changed values.
+ * <br>
+ * Instances are compared by identity and only weakly referenced, so tracking does not prevent
+ * garbage collection. Entries of collected instances are removed on the next access.
+ */
+final class ConfigInstanceRegistry
+{
+	private final ReferenceQueue<Object> queue = new ReferenceQueue<>();
+	private final Map<InstanceRef, String> instances = new ConcurrentHashMap<>();
+
+
+	/**
+	 * @param obj the instance to track, replacing its spezi if it is already tracked
+	 * @param spezi the spezi of the instance
+	 */
+	void track(final Object obj, final String spezi)
+	{
+		expunge();
+		instances.put(new InstanceRef(obj, queue), spezi);
+	}
+
+
+	/**
+	 * @param obj the instance to stop tracking
+	 */
+	void untrack(final Object obj)
+	{
+		expunge();
+		instances.remove(new InstanceRef(obj, null));
+	}
+
+
+	/**
+	 * @return the number of tracked live instances
+	 */
+	int size()
+	{
+		expunge();
+		return instances.size();
+	}
+
+
+	/**
+	 * @return all tracked live instances, grouped by their spezi
+	 */
+	Map<String, List<Object>> getInstancesBySpezi()
+	{
+		expunge();
+		Map<String, List<Object>> bySpezi = new HashMap<>();
+		for (Map.Entry<InstanceRef, String> entry : instances.entrySet())
+		{
+			Object obj = entry.getKey().get();
+			if (obj != null)
+			{
+				bySpezi.computeIfAbsent(entry.getValue(), s -> new ArrayList<>()).add(obj);
+			}
+		}
+		return bySpezi;
+	}
+
+
+	private void expunge()
+	{
+		Reference<?> ref;
+		while ((ref = queue.poll()) != null)
+		{
+			instances.remove(ref);
+		}
+	}
+
+	/**
+	 * Weak reference that is equal to all references to the same instance
+	 */
+	private static final class InstanceRef extends WeakReference<Object>
+	{
+		private final int hash;
+
+
+		private InstanceRef(final Object obj, final ReferenceQueue<Object> queue)
+		{
+			super(obj, queue);
+			hash = System.identityHashCode(obj);
+		}
+
+
+		@Override
+		public boolean equals(final Object o)
+		{
+			if (this == o)
+			{
+				return true;
+			}
+			if (!(o instanceof InstanceRef))
+			{
+				return false;
+			}
+			Object obj = get();
+			return obj != null && obj == ((InstanceRef) o).get();
+		}
+
+
+		@Override
+		public int hashCode()
+		{
+			return hash;
+		}
+	}
+}
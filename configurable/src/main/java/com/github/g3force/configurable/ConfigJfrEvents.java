@@ -0,0 +1,247 @@
+/*
+ * *********************************************************
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - Tigers Mannheim
+ * Project: TIGERS - Sumatra
+ * Date: Oct 18, 2026
+ * *********************************************************
+ */
+package com.github.g3force.configurable;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+
+/**
+ * Flight recorder event types. This class is only loaded reflectively by {@link ConfigEvents},
+ * as the jdk.jfr module is not available on every runtime. It is only compiled on JDK 11 and newer
+ * (profile 'jfr'), the rest of the library builds for Java 8.
+ * <br>
+ * All events are disabled by default, also in the default and profile settings of the JDK,
+ * as apply and override can be called very often. They have to be enabled explicitly.
+ */
+final class ConfigJfrEvents implements IConfigEventRecorder
+{
+	private static final String CATEGORY = "Configurable";
+
+
+	@Override
+	public Object beginLoad()
+	{
+		return begin(new LoadEvent());
+	}
+
+
+	@Override
+	public void commitLoad(final Object event, final String category, final int changes)
+	{
+		LoadEvent e = (LoadEvent) event;
+		e.end();
+		if (e.shouldCommit())
+		{
+			e.category = category;
+			e.changes = changes;
+			e.commit();
+		}
+	}
+
+
+	@Override
+	public Object beginParse()
+	{
+		return begin(new ParseEvent());
+	}
+
+
+	@Override
+	public void commitParse(final Object event, final String format, final int entries)
+	{
+		ParseEvent e = (ParseEvent) event;
+		e.end();
+		if (e.shouldCommit())
+		{
+			e.format = format;
+			e.entries = entries;
+			e.commit();
+		}
+	}
+
+
+	@Override
+	public Object beginApply()
+	{
+		return begin(new ApplyEvent());
+	}
+
+
+	@Override
+	public void commitApply(final Object event, final String category, final String spezi, final Class<?> target,
+			final int fieldCount)
+	{
+		ApplyEvent e = (ApplyEvent) event;
+		e.end();
+		if (e.shouldCommit())
+		{
+			e.category = category;
+			e.spezi = spezi;
+			e.target = target;
+			e.fieldCount = fieldCount;
+			e.commit();
+		}
+	}
+
+
+	@Override
+	public Object beginOverride()
+	{
+		return begin(new OverrideEvent());
+	}
+
+
+	@Override
+	public void commitOverride(final Object event, final String category, final Class<?> clazz,
+			final String fieldName, final String value)
+	{
+		OverrideEvent e = (OverrideEvent) event;
+		e.end();
+		if (e.shouldCommit())
+		{
+			e.category = category;
+			e.clazz = clazz;
+			e.fieldName = fieldName;
+			e.value = value;
+			e.commit();
+		}
+	}
+
+
+	@Override
+	public Object beginSave()
+	{
+		return begin(new SaveEvent());
+	}
+
+
+	@Override
+	public void commitSave(final Object event, final String category, final String file, final long bytes,
+			final boolean success)
+	{
+		SaveEvent e = (SaveEvent) event;
+		e.end();
+		if (e.shouldCommit())
+		{
+			e.category = category;
+			e.file = file;
+			e.bytes = bytes;
+			e.success = success;
+			e.commit();
+		}
+	}
+
+
+	private static Object begin(final Event event)
+	{
+		if (!event.isEnabled())
+		{
+			return null;
+		}
+		event.begin();
+		return event;
+	}
+
+	@Name("com.github.g3force.configurable.Load")
+	@Label("Config Load")
+	@Category(CATEGORY)
+	@Enabled(false)
+	@Description("Field data of a category loaded from a config file or config object")
+	static class LoadEvent extends Event
+	{
+		@Label("Category")
+		String category;
+
+		@Label("Changes")
+		@Description("Number of values that changed or were not known before")
+		int changes;
+	}
+
+	@Name("com.github.g3force.configurable.Parse")
+	@Label("Config Parse")
+	@Category(CATEGORY)
+	@Enabled(false)
+	@Description("A config file or config snapshot parsed")
+	static class ParseEvent extends Event
+	{
+		@Label("Format")
+		String format;
+
+		@Label("Entries")
+		int entries;
+	}
+
+	@Name("com.github.g3force.configurable.Apply")
+	@Label("Config Apply")
+	@Category(CATEGORY)
+	@Enabled(false)
+	@Description("Config values applied to static fields or an instance")
+	static class ApplyEvent extends Event
+	{
+		@Label("Category")
+		String category;
+
+		@Label("Spezi")
+		@Description("The applied spezi, missing if all spezis were applied")
+		String spezi;
+
+		@Label("Target")
+		@Description("The class of the instance, missing for static fields")
+		Class<?> target;
+
+		@Label("Field Count")
+		int fieldCount;
+	}
+
+	@Name("com.github.g3force.configurable.Override")
+	@Label("Config Override")
+	@Category(CATEGORY)
+	@Enabled(false)
+	@Description("The value of a field overridden")
+	static class OverrideEvent extends Event
+	{
+		@Label("Category")
+		String category;
+
+		@Label("Class")
+		Class<?> clazz;
+
+		@Label("Field")
+		String fieldName;
+
+		@Label("Value")
+		String value;
+	}
+
+	@Name("com.github.g3force.configurable.Save")
+	@Label("Config Save")
+	@Category(CATEGORY)
+	@Enabled(false)
+	@Description("A config file saved")
+	static class SaveEvent extends Event
+	{
+		@Label("Category")
+		String category;
+
+		@Label("File")
+		String file;
+
+		@Label("Size")
+		@DataAmount
+		long bytes;
+
+		@Label("Success")
+		boolean success;
+	}
+}
@@ -0,0 +1,293 @@
+/*
+ * *********************************************************
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - Tigers Mannheim
+ * Project: TIGERS - Sumatra
+ * Date: Oct 18, 2026
+ * *********************************************************
+ */
+package com.github.g3force.configurable;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+
+/**
+ * Counters and latency histograms of the config operations per category.
+ * <br>
+ * Metrics are disabled by default. While disabled, an operation only reads a volatile flag.
+ * The metrics are also available through the platform MBean server at {@value #OBJECT_NAME}.
+ */
+public final class ConfigMetrics
+{
+	private static final Logger log = LogManager.getLogger(ConfigMetrics.class.getName());
+
+	/** JMX object name of the {@link ConfigMetricsMXBean} */
+	public static final String OBJECT_NAME = "com.github.g3force.configurable:type=ConfigMetrics";
+
+	/** start time of an operation that is not recorded */
+	static final long NOT_RECORDED = Long.MIN_VALUE;
+
+	private static final int NUM_BUCKETS = 64;
+
+	private static final ConcurrentMap<String, CategoryMetrics> categories = new ConcurrentHashMap<>();
+	private static volatile boolean enabled = false;
+
+	static
+	{
+		try
+		{
+			ManagementFactory.getPlatformMBeanServer().registerMBean(new MXBean(), new ObjectName(OBJECT_NAME));
+		} catch (JMException | SecurityException err)
+		{
+			log.debug("Could not register config metrics MBean", err);
+		}
+	}
+
+
+	private ConfigMetrics()
+	{
+	}
+
+
+	/**
+	 * @param enabled whether to record metrics
+	 */
+	@SuppressWarnings("WeakerAccess")
+	public static void setEnabled(final boolean enabled)
+	{
+		ConfigMetrics.enabled = enabled;
+	}
+
+
+	/**
+	 * @return whether metrics are recorded
+	 */
+	@SuppressWarnings("WeakerAccess")
+	public static boolean isEnabled()
+	{
+		return enabled;
+	}
+
+
+	/**
+	 * @return the names of all categories with metrics
+	 */
+	@SuppressWarnings("WeakerAccess")
+	public static Set<String> getCategories()
+	{
+		return Collections.unmodifiableSet(new TreeSet<>(categories.keySet()));
+	}
+
+
+	/**
+	 * Get a snapshot of the metrics of a category
+	 *
+	 * @param category the category
+	 * @return the statistics of each operation, empty if the category is unknown
+	 */
+	@SuppressWarnings("WeakerAccess")
+	public static Map<ConfigOperation, ConfigOperationStats> getSnapshot(final String category)
+	{
+		CategoryMetrics metrics = categories.get(category);
+		if (metrics == null)
+		{
+			return Collections.emptyMap();
+		}
+		Map<ConfigOperation, ConfigOperationStats> stats = new EnumMap<>(ConfigOperation.class);
+		for (ConfigOperation op : ConfigOperation.values())
+		{
+			stats.put(op, metrics.operations[op.ordinal()].getStats());
+		}
+		return Collections.unmodifiableMap(stats);
+	}
+
+
+	/**
+	 * @param category the category
+	 * @return the number of field entries (fields x spezis) of the category or 0, if it is unknown
+	 */
+	@SuppressWarnings("WeakerAccess")
+	public static int getFieldCount(final String category)
+	{
+		CategoryMetrics metrics = categories.get(category);
+		return metrics == null ? 0 : metrics.fieldCount.get();
+	}
+
+
+	/**
+	 * Reset all counters and histograms. Field counts are kept.
+	 */
+	@SuppressWarnings("WeakerAccess")
+	public static void reset()
+	{
+		for (CategoryMetrics metrics : categories.values())
+		{
+			for (OperationMetrics op : metrics.operations)
+			{
+				op.reset();
+			}
+		}
+	}
+
+
+	/**
+	 * @return the start time of an operation to pass to {@link CategoryMetrics#record}
+	 */
+	static long start()
+	{
+		return enabled ? System.nanoTime() : NOT_RECORDED;
+	}
+
+
+	/**
+	 * @param category the category
+	 * @return the metrics of the category, shared by all processors of this category
+	 */
+	static CategoryMetrics forCategory(final String category)
+	{
+		return categories.computeIfAbsent(category, c -> new CategoryMetrics());
+	}
+
+	/**
+	 * Metrics of a single category
+	 */
+	static final class CategoryMetrics
+	{
+		private final OperationMetrics[] operations = new OperationMetrics[ConfigOperation.values().length];
+		private final AtomicInteger fieldCount = new AtomicInteger();
+
+
+		private CategoryMetrics()
+		{
+			for (int i = 0; i < operations.length; i++)
+			{
+				operations[i] = new OperationMetrics();
+			}
+		}
+
+
+		/**
+		 * Record an operation that started at the given time
+		 *
+		 * @param operation the operation
+		 * @param startNanos the result of {@link ConfigMetrics#start()}
+		 */
+		void record(final ConfigOperation operation, final long startNanos)
+		{
+			if (startNanos != NOT_RECORDED)
+			{
+				operations[operation.ordinal()].record(System.nanoTime() - startNanos);
+			}
+		}
+
+
+		/**
+		 * @param count the current number of field entries
+		 */
+		void setFieldCount(final int count)
+		{
+			fieldCount.set(count);
+		}
+	}
+
+	private static final class OperationMetrics
+	{
+		private final LongAdder count = new LongAdder();
+		private final LongAdder totalNanos = new LongAdder();
+		private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+		private final AtomicLongArray histogram = new AtomicLongArray(NUM_BUCKETS);
+
+
+		private void record(final long nanos)
+		{
+			long duration = Math.max(0, nanos);
+			count.increment();
+			totalNanos.add(duration);
+			maxNanos.accumulate(duration);
+			histogram.incrementAndGet(63 - Long.numberOfLeadingZeros(Math.max(1, duration)));
+		}
+
+
+		private ConfigOperationStats getStats()
+		{
+			long[] buckets = new long[NUM_BUCKETS];
+			for (int i = 0; i < NUM_BUCKETS; i++)
+			{
+				buckets[i] = histogram.get(i);
+			}
+			return new ConfigOperationStats(count.sum(), totalNanos.sum(), maxNanos.get(), buckets);
+		}
+
+
+		private void reset()
+		{
+			count.reset();
+			totalNanos.reset();
+			maxNanos.reset();
+			for (int i = 0; i < NUM_BUCKETS; i++)
+			{
+				histogram.set(i, 0);
+			}
+		}
+	}
+
+	private static final class MXBean implements ConfigMetricsMXBean
+	{
+		@Override
+		public boolean isEnabled()
+		{
+			return ConfigMetrics.isEnabled();
+		}
+
+
+		@Override
+		public void setEnabled(final boolean enabled)
+		{
+			ConfigMetrics.setEnabled(enabled);
+		}
+
+
+		@Override
+		public String[] getCategories()
+		{
+			return new TreeSet<>(categories.keySet()).toArray(new String[0]);
+		}
+
+
+		@Override
+		public int getFieldCount(final String category)
+		{
+			return ConfigMetrics.getFieldCount(category);
+		}
+
+
+		@Override
+		public ConfigOperationStats getStats(final String category, final String operation)
+		{
+			return getSnapshot(category).get(ConfigOperation.valueOf(operation));
+		}
+
+
+		@Override
+		public void reset()
+		{
+			ConfigMetrics.reset();
+		}
+	}
+}
@@ -0,0 +1,46 @@
+/*
+ * *********************************************************
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - Tigers Mannheim
+ * Project: TIGERS - Sumatra
+ * Date: Oct 18, 2026
+ * *********************************************************
+ */
+package com.github.g3force.configurable;
+
+/**
+ * Management interface of {@link ConfigMetrics}, registered at {@value ConfigMetrics#OBJECT_NAME}
+ */
+public interface ConfigMetricsMXBean
+{
+	boolean isEnabled();
+
+
+	void setEnabled(boolean enabled);
+
+
+	/**
+	 * @return all categories with recorded metrics
+	 */
+	String[] getCategories();
+
+
+	/**
+	 * @param category the category
+	 * @return the number of field entries (fields x spezis) of the category
+	 */
+	int getFieldCount(String category);
+
+
+	/**
+	 * @param category the category
+	 * @param operation the name of a {@link ConfigOperation}
+	 * @return the statistics of the operation
+	 */
+	ConfigOperationStats getStats(String category, String operation);
+
+
+	/**
+	 * Reset all counters and histograms
+	 */
+	void reset();
+}
@@ -0,0 +1,29 @@
+/*
+ * *********************************************************
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - Tigers Mannheim
+ * Project: TIGERS - Sumatra
+ * Date: Oct 18, 2026
+ * *********************************************************
+ */
+package com.github.g3force.configurable;
+
+/**
+ * Operations of a config category that are recorded by {@link ConfigMetrics}
+ */
+public enum ConfigOperation
+{
+	/** load field data from a config file or config object */
+	LOAD,
+	/** apply all spezis, to static fields or an instance */
+	APPLY_ALL,
+	/** apply a single spezi, to static fields or an instance */
+	APPLY_SPEZI,
+	/** apply changed values, to static fields and tracked instances */
+	APPLY_CHANGES,
+	/** apply all spezis, a spezi or changed values to a collection of instances */
+	APPLY_BULK,
+	/** override the value of a field */
+	OVERRIDE,
+	/** save the config file */
+	SAVE,
+}
@@ -0,0 +1,110 @@
+/*
+ * *********************************************************
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - Tigers Mannheim
+ * Project: TIGERS - Sumatra
+ * Date: Oct 18, 2026
+ * *********************************************************
+ */
+package com.github.g3force.configurable;
+
+import java.util.Arrays;
+
+
+/**
+ * Immutable statistics of a {@link ConfigOperation} of a category.
+ * <br>
+ * Latencies are recorded in a histogram with power-of-two buckets: bucket i counts latencies
+ * from 2^i to 2^(i+1) nanoseconds.
+ */
+public final class ConfigOperationStats
+{
+	private final long count;
+	private final long totalNanos;
+	private final long maxNanos;
+	private final long[] histogram;
+
+
+	ConfigOperationStats(final long count, final long totalNanos, final long maxNanos, final long[] histogram)
+	{
+		this.count = count;
+		this.totalNanos = totalNanos;
+		this.maxNanos = maxNanos;
+		this.histogram = histogram;
+	}
+
+
+	/**
+	 * @return the number of recorded operations
+	 */
+	public long getCount()
+	{
+		return count;
+	}
+
+
+	/**
+	 * @return the sum of all latencies
+	 */
+	public long getTotalNanos()
+	{
+		return totalNanos;
+	}
+
+
+	/**
+	 * @return the highest latency
+	 */
+	public long getMaxNanos()
+	{
+		return maxNanos;
+	}
+
+
+	/**
+	 * @return the average latency or 0, if nothing was recorded
+	 */
+	public long getMeanNanos()
+	{
+		return count == 0 ? 0 : totalNanos / count;
+	}
+
+
+	/**
+	 * @return the number of operations per latency bucket
+	 */
+	public long[] getHistogram()
+	{
+		return Arrays.copyOf(histogram, histogram.length);
+	}
+
+
+	/**
+	 * Estimate a percentile from the histogram
+	 *
+	 * @param percentile the percentile in [0, 100]
+	 * @return the upper bound of the histogram bucket containing the percentile, at most the max latency
+	 */
+	@SuppressWarnings("WeakerAccess")
+	public long getPercentileNanos(final double percentile)
+	{
+		long rank = (long) Math.ceil(count * percentile / 100.0);
+		long seen = 0;
+		for (int i = 0; i < histogram.length; i++)
+		{
+			seen += histogram[i];
+			if (seen >= rank && seen > 0)
+			{
+				return Math.min(maxNanos, i >= 62 ? Long.MAX_VALUE : (1L << (i + 1)) - 1);
+			}
+		}
+		return 0;
+	}
+
+
+	@Override
+	public String toString()
+	{
+		return "count=" + count + ", mean=" + getMeanNanos() + "ns, p99=" + getPercentileNanos(99) + "ns, max="
+				+ maxNanos + "ns";
+	}
+}
@@ -0,0 +1,652 @@
+/*
+ * *********************************************************
+ * Copyright (c) 2009 - 2014, DHBW Mannheim - Tigers Mannheim
+ * Project: TIGERS - Sumatra
+ * Date: Aug 25, 2014
+ * Author(s): Nicolai Ommer <nicolai.ommer@gmail.com>
+ * *********************************************************
+ */
+package com.github.g3force.configurable;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.stream.XMLStreamException;
+
+import org.apache.commons.configuration.HierarchicalConfiguration;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+
+/**
+ * Central registration for all configs.
+ * <br>
+ * There is no global lock: each category ({@link ConfigClient}) synchronizes on its own,
+ * so that operations on different categories can run in parallel.
+ */
+public class ConfigRegistration
+{
+	private static final Logger log = LogManager.getLogger(ConfigRegistration.class.getName());
+	private final Map<String, ConfigClient> configs = new ConcurrentHashMap<>();
+	/** category names in order of registration */
+	private final List<String> configNames = new CopyOnWriteArrayList<>();
+
+	private static volatile String defPath = "config/";
+	private static volatile int backupCount = 0;
+	private static volatile boolean useSnapshots = false;
+	private static final long WATCH_DEBOUNCE_MS = 200;
+
+	private static List<IConfigClientsObserver> observers = new CopyOnWriteArrayList<>();
+
+	private static final ConfigRegistration INSTANCE = new ConfigRegistration();
+
+	private final ConfigSaver saver = new ConfigSaver();
+	/** category -> config file parsed by {@link #preload()}, until its client is created */
+	private final Map<String, CompletableFuture<ConfigFileContent>> preloaded = new ConcurrentHashMap<>();
+	private final Object watcherLock = new Object();
+	private ConfigFileWatcher watcher;
+
+
+	private ConfigRegistration()
+	{
+		try
+		{
+			Files.createDirectories(Paths.get(defPath));
+		} catch (IOException e)
+		{
+			log.error("Could not create default config dir: " + defPath, e);
+		}
+	}
+
+
+	/**
+	 * Update the default config path (default: config/)
+	 * <br>
+	 * Note: This must be called before config clients are added
+	 *
+	 * @param path a new default path
+	 */
+	public static void setDefPath(String path)
+	{
+		defPath = path;
+	}
+
+
+	/**
+	 * Set the number of rotated backups to keep when saving a config file (default: 0).
+	 * It applies to all existing and future categories.
+	 *
+	 * @param count the number of backups, 0 to disable backups
+	 * @see ConfigClient#setBackupCount(int)
+	 */
+	@SuppressWarnings("WeakerAccess")
+	public static void setBackupCount(final int count)
+	{
+		if (count < 0)
+		{
+			throw new IllegalArgumentException("Backup count must not be negative: " + count);
+		}
+		backupCount = count;
+		INSTANCE.configs.values().forEach(cc -> cc.setBackupCount(count));
+	}
+
+
+	/**
+	 * Write binary snapshots of the config files on save and prefer them on load,
+	 * as long as the config files were not modified since. It applies to all existing and future categories.
+	 *
+	 * @param use whether to use snapshots (default: false)
+	 * @see ConfigClient#setUseSnapshot(boolean)
+	 */
+	@SuppressWarnings("WeakerAccess")
+	public static void setUseSnapshots(final boolean use)
+	{
+		useSnapshots = use;
+		INSTANCE.configs.values().forEach(cc -> cc.setUseSnapshot(use));
+	}
+
+
+	/**
+	 * Parse all config files in the default config path in parallel. The parsed files are used when
+	 * the categories are first accessed, e.g. by {@link #registerClass(String, Class[])}, instead of
+	 * reading the files then. Categories that exist already are skipped.
+	 * <br>
+	 * Call this early during startup, before configurable classes are loaded.
+	 *
+	 * @return a future that completes when all files are parsed
+	 */
+	@SuppressWarnings("WeakerAccess")
+	public static CompletableFuture<Void> preload()
+	{
+		List<Path> files = new ArrayList<>();
+		try (DirectoryStream<Path> stream = Files.newDirectoryStream(Paths.get(defPath), "*.xml"))
+		{
+			stream.forEach(files::add);
+		} catch (IOException e)
+		{
+			log.error("Could not list config dir: " + defPath, e);
+			return CompletableFuture.completedFuture(null);
+		}
+		if (files.isEmpty())
+		{
+			return CompletableFuture.completedFuture(null);
+		}
+
+		ExecutorService pool = Executors.newFixedThreadPool(
+				Math.min(files.size(), Runtime.getRuntime().availableProcessors()), r -> {
+					Thread thread = new Thread(r, "ConfigPreload");
+					thread.setDaemon(true);
+					return thread;
+				});
+		List<CompletableFuture<ConfigFileContent>> futures = new ArrayList<>(files.size());
+		for (Path file : files)
+		{
+			String fileName = file.getFileName().toString();
+			String cat = fileName.substring(0, fileName.length() - ".xml".length());
+			if (INSTANCE.configs.containsKey(cat))
+			{
+				continue;
+			}
+			CompletableFuture<ConfigFileContent> future = INSTANCE.preloaded.computeIfAbsent(cat,
+					c -> CompletableFuture.supplyAsync(() -> preload(file), pool));
+			futures.add(future);
+			// a client created in the meantime may have missed the preloaded file
+			ConfigClient cc = INSTANCE.configs.get(cat);
+			if ((cc != null) && INSTANCE.preloaded.remove(cat, future))
+			{
+				cc.setPreloadedConfig(future);
+			}
+		}
+		pool.shutdown();
+		return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]));
+	}
+
+
+	private static ConfigFileContent preload(final Path file)
+	{
+		try
+		{
+			return ConfigFileContent.read(file, useSnapshots);
+		} catch (IOException | XMLStreamException e)
+		{
+			log.error("Could not preload config file: " + file, e);
+			return null;
+		}
+	}
+
+
+	/**
+	 * Watch the default config path for external modifications of config files.
+	 * Modified files are reloaded after a short debounce time, changed values are applied
+	 * and observers are notified. Saves of this library are ignored.
+	 *
+	 * @return true, if the config path is watched
+	 */
+	@SuppressWarnings("WeakerAccess")
+	public static boolean startWatching()
+	{
+		synchronized (INSTANCE.watcherLock)
+		{
+			if (INSTANCE.watcher != null)
+			{
+				return true;
+			}
+			try
+			{
+				INSTANCE.watcher = new ConfigFileWatcher(Paths.get(defPath), INSTANCE.configs, WATCH_DEBOUNCE_MS);
+			} catch (IOException e)
+			{
+				log.error("Could not watch config dir: " + defPath, e);
+				return false;
+			}
+			INSTANCE.watcher.start();
+			return true;
+		}
+	}
+
+
+	/**
+	 * Stop watching the default config path
+	 */
+	@SuppressWarnings("WeakerAccess")
+	public static void stopWatching()
+	{
+		synchronized (INSTANCE.watcherLock)
+		{
+			if (INSTANCE.watcher != null)
+			{
+				INSTANCE.watcher.stop();
+				INSTANCE.watcher = null;
+			}
+		}
+	}
+
+
+	public static void addObserver(final IConfigClientsObserver observer)
+	{
+		observers.add(observer);
+	}
+
+
+	public static void removeObserver(final IConfigClientsObserver observer)
+	{
+		observers.remove(observer);
+	}
+
+
+	public static void registerConfigClient(final ConfigClient cc)
+	{
+		if (INSTANCE.configs.put(cc.getName(), cc) == null)
+		{
+			INSTANCE.configNames.add(cc.getName());
+		}
+		for (IConfigClientsObserver o : observers)
+		{
+			o.onNewConfigClient(cc.getName());
+		}
+	}
+
+
+	/**
+	 * Get the config client of given category. If it does not exist yet, it is created and
+	 * the config file is loaded and applied once.
+	 *
+	 * @param key the category
+	 * @return the config client of given category
+	 */
+	ConfigClient getConfigClient(final String key)
+	{
+		ConfigClient cc = getOrCreateConfigClient(key);
+		cc.initialize();
+		return cc;
+	}
+
+
+	private ConfigClient getOrCreateConfigClient(final String key)
+	{
+		ConfigClient cc = configs.get(key);
+		if (cc == null)
+		{
+			ConfigClient newCc = new ConfigClient(defPath, key);
+			newCc.setBackupCount(backupCount);
+			newCc.setUseSnapshot(useSnapshots);
+			cc = configs.putIfAbsent(key, newCc);
+			if (cc == null)
+			{
+				cc = newCc;
+				cc.setPreloadedConfig(preloaded.remove(key));
+				configNames.add(key);
+				for (IConfigClientsObserver o : observers)
+				{
+					o.onNewConfigClient(key);
+				}
+			}
+		}
+		return cc;
+	}
+
+
+	/**
+	 * Register classes from their static initializers. Only the static fields of the given classes are set,
+	 * without locking the category, so that concurrently initializing classes do not block each other.
+	 * All values are applied once, when the category is first used otherwise.
+	 *
+	 * @param key the category
+	 * @param classes the classes to register
+	 */
+	public static void registerClass(final String key, final Class<?>... classes)
+	{
+		ConfigClient cc = INSTANCE.getOrCreateConfigClient(key);
+		for (Class<?> c : classes)
+		{
+			cc.registerClass(c);
+		}
+	}
+
+
+	/**
+	 * Find all classes with configurable fields in the given packages and register them under the categories
+	 * of their fields, one bulk registration per category.
+	 * The class files are scanned in parallel without loading the classes. Registration reads the current values
+	 * of static fields, which initializes the registered classes.
+	 *
+	 * @param defaultCategory the category of classes whose fields have no category or null to skip these classes
+	 * @param packages the packages to scan, including sub packages
+	 * @return the registered classes per category
+	 */
+	public static Map<String, List<Class<?>>> registerPackages(final String defaultCategory, final String... packages)
+	{
+		ClassLoader loader = ConfigRegistration.class.getClassLoader();
+		long start = System.nanoTime();
+		Map<String, Set<String>> found;
+		try
+		{
+			found = ConfigClassScanner.scan(loader, Arrays.asList(packages));
+		} catch (IOException e)
+		{
+			log.error("Could not scan packages: " + Arrays.toString(packages), e);
+			return Collections.emptyMap();
+		}
+
+		Map<String, List<Class<?>>> byCategory = new LinkedHashMap<>();
+		for (Map.Entry<String, Set<String>> entry : found.entrySet())
+		{
+			Set<String> categories = new LinkedHashSet<>(entry.getValue());
+			categories.remove("");
+			if (categories.isEmpty() && defaultCategory != null)
+			{
+				categories.add(defaultCategory);
+			}
+			if (categories.isEmpty())
+			{
+				continue;
+			}
+			try
+			{
+				Class<?> clazz = Class.forName(entry.getKey(), false, loader);
+				categories.forEach(cat -> byCategory.computeIfAbsent(cat, c -> new ArrayList<>()).add(clazz));
+			} catch (ClassNotFoundException | LinkageError e)
+			{
+				log.warn("Could not load configurable class " + entry.getKey(), e);
+			}
+		}
+		byCategory.forEach((cat, classes) -> INSTANCE.getConfigClient(cat).putClasses(classes));
+		log.debug("Registered {} of {} configurable classes in {}ms", byCategory.values().stream().mapToInt(List::size)
+				.sum(), found.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+		return byCategory;
+	}
+
+
+	public static boolean save(final String key)
+	{
+		ConfigClient cc = INSTANCE.getConfigClient(key);
+		return cc.saveCurrentConfig();
+	}
+
+
+	/**
+	 * Save the given category in the background. All save requests within the save window
+	 * (see {@link #setSaveWindow(long)}) are coalesced into a single write.
+	 *
+	 * @param key the category
+	 * @return a future that completes with the result of the write
+	 */
+	@SuppressWarnings("WeakerAccess")
+	public static CompletableFuture<Boolean> saveAsync(final String key)
+	{
+		ConfigClient cc = INSTANCE.getConfigClient(key);
+		return INSTANCE.saver.save(cc);
+	}
+
+
+	/**
+	 * Set the time to wait for further save requests before writing a category in the background (default: 500ms)
+	 *
+	 * @param windowMs the save window in milliseconds
+	 */
+	@SuppressWarnings("WeakerAccess")
+	public static void setSaveWindow(final long windowMs)
+	{
+		INSTANCE.saver.setWindow(windowMs);
+	}
+
+
+	/**
+	 * Write all pending background saves now and wait until they are done.
+	 * This is also done automatically on shutdown.
+	 */
+	@SuppressWarnings("WeakerAccess")
+	public static void flushSaves()
+	{
+		INSTANCE.saver.flush();
+	}
+
+
+	/**
+	 * Register a callback to a config category to get informed by changes
+	 *
+	 * @param cat the category
+	 * @param callback the callback
+	 */
+	public static void registerConfigurableCallback(final String cat, final IConfigObserver callback)
+	{
+		ConfigClient cc = INSTANCE.getConfigClient(cat);
+		cc.addObserver(callback);
+	}
+
+
+	/**
+	 * Unregister previously registered callbacks
+	 *
+	 * @param cat the category
+	 * @param callback the callback
+	 */
+	public static void unregisterConfigurableCallback(final String cat, final IConfigObserver callback)
+	{
+		ConfigClient cc = INSTANCE.getConfigClient(cat);
+		cc.removeObserver(callback);
+	}
+
+
+	/**
+	 * Apply the spezi to the object in category
+	 *
+	 * @param obj the object
+	 * @param cat the category
+	 * @param spezi the specialization
+	 */
+	public static void applySpezis(final Object obj, final String cat, final String spezi)
+	{
+		ConfigClient cc = INSTANCE.getConfigClient(cat);
+		cc.getCap().applySpezi(obj, spezi);
+	}
+
+
+	/**
+	 * Track the object in category: the spezi is applied now, changed values of the spezi are applied
+	 * on each apply of changed config and on each override and all values on each full apply.
+	 * The object is only weakly referenced.
+	 *
+	 * @param obj the object
+	 * @param cat the category
+	 * @param spezi the specialization
+	 */
+	public static void trackInstance(final Object obj, final String cat, final String spezi)
+	{
+		ConfigClient cc = INSTANCE.getConfigClient(cat);
+		cc.getCap().trackInstance(obj, spezi);
+	}
+
+
+	/**
+	 * Stop tracking the object in category
+	 *
+	 * @param obj the object
+	 * @param cat the category
+	 */
+	public static void untrackInstance(final Object obj, final String cat)
+	{
+		ConfigClient cc = INSTANCE.getConfigClient(cat);
+		cc.getCap().untrackInstance(obj);
+	}
+
+
+	/**
+	 * Apply the spezi to all given objects in category.
+	 * Large collections are processed in parallel.
+	 *
+	 * @param objects the objects
+	 * @param cat the category
+	 * @param spezi the specialization
+	 */
+	public static void applySpezisBulk(final Collection<?> objects, final String cat, final String spezi)
+	{
+		ConfigClient cc = INSTANCE.getConfigClient(cat);
+		cc.getCap().applySpeziBulk(objects, spezi);
+	}
+
+
+	/**
+	 * Apply the spezi to all classes
+	 *
+	 * @param cat
+	 * @param spezi
+	 */
+	public static void applySpezi(final String cat, final String spezi)
+	{
+		ConfigClient cc = INSTANCE.getConfigClient(cat);
+		cc.getCap().applySpezi(spezi);
+	}
+
+
+	/**
+	 * Apply the spezi to all classes and all categories
+	 *
+	 * @param spezi
+	 */
+	public static void applyGlobalSpezi(final String spezi)
+	{
+		for (ConfigClient cc : INSTANCE.configs.values())
+		{
+			cc.getCap().applySpezi(spezi);
+		}
+	}
+
+
+	/**
+	 * Apply all and notify observers
+	 *
+	 * @param cat
+	 */
+	public static void applyConfig(final String cat)
+	{
+		ConfigClient cc = INSTANCE.getConfigClient(cat);
+		cc.applyConfig();
+	}
+
+
+	/**
+	 * Apply only values that changed since the last load and notify observers
+	 *
+	 * @param cat the category
+	 */
+	public static void applyChangedConfig(final String cat)
+	{
+		ConfigClient cc = INSTANCE.getConfigClient(cat);
+		cc.applyChangedConfig();
+	}
+
+
+	/**
+	 * Override a fields value
+	 *
+	 * @param obj the object that the change should applied to
+	 * @param cat the category of this config
+	 * @param fieldName the name of the field to override
+	 * @param value the value to apply
+	 */
+	public static void overrideConfig(final Object obj, String cat, String fieldName, String value)
+	{
+		ConfigClient cc = INSTANCE.getConfigClient(cat);
+		cc.getCap().overrideField(obj, fieldName, value);
+	}
+
+
+	/**
+	 * Override a fields value
+	 *
+	 * @param clazz the class that the change should applied to
+	 * @param cat the category of this config
+	 * @param fieldName the name of the field to override
+	 * @param value the value to apply
+	 */
+	public static void overrideConfig(final Class<?> clazz, String cat, String fieldName, String value)
+	{
+		ConfigClient cc = INSTANCE.getConfigClient(cat);
+		cc.getCap().overrideField(clazz, fieldName, value);
+	}
+
+
+	/**
+	 * Get a handle to the current value of a configurable field.
+	 * The handle always reflects the latest applied or overridden value.
+	 *
+	 * @param cat the category of this config
+	 * @param clazz the class that declares the field
+	 * @param fieldName the name of the field
+	 * @param spezi the specialization, empty for the default
+	 * @param <T> the type of the field
+	 * @return a handle to the value
+	 */
+	public static <T> ConfigValue<T> getConfigValue(final String cat, final Class<?> clazz, final String fieldName,
+			final String spezi)
+	{
+		ConfigClient cc = INSTANCE.getConfigClient(cat);
+		return new ConfigValue<>(cc.getCap(), clazz, fieldName, spezi);
+	}
+
+
+	/**
+	 * Get a handle to the current value of a configurable field with the default spezi.
+	 *
+	 * @param cat the category of this config
+	 * @param clazz the class that declares the field
+	 * @param fieldName the name of the field
+	 * @param <T> the type of the field
+	 * @return a handle to the value
+	 */
+	public static <T> ConfigValue<T> getConfigValue(final String cat, final Class<?> clazz, final String fieldName)
+	{
+		return getConfigValue(cat, clazz, fieldName, "");
+	}
+
+
+	public static HierarchicalConfiguration getConfig(final String cat)
+	{
+		ConfigClient cc = INSTANCE.getConfigClient(cat);
+		return cc.getConfig();
+	}
+
+
+	public static HierarchicalConfiguration loadConfig(final String cat)
+	{
+		ConfigClient cc = INSTANCE.getConfigClient(cat);
+		return cc.loadConfig();
+	}
+
+
+	/**
+	 * Read all fields from all classes and store values internally.
+	 *
+	 * @param cat
+	 */
+	public static void readClasses(final String cat)
+	{
+		ConfigClient cc = INSTANCE.getConfigClient(cat);
+		cc.readClasses();
+	}
+
+
+	public static List<String> getConfigClients()
+	{
+		return new ArrayList<>(INSTANCE.configNames);
+	}
+}
@@ -0,0 +1,144 @@
+/*
+ * *********************************************************
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - Tigers Mannheim
+ * Project: TIGERS - Sumatra
+ * Date: Oct 18, 2026
+ * *********************************************************
+ */
+package com.github.g3force.configurable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+
+/**
+ * Write-behind saver for config clients.
+ * <br>
+ * A save request marks the category dirty. All requests within the save window are coalesced
+ * into a single write on a dedicated daemon thread. Pending saves are flushed on shutdown.
+ */
+final class ConfigSaver
+{
+	private static final Logger log = LogManager.getLogger(ConfigSaver.class.getName());
+
+	/** category -> save that did not start yet */
+	private final Map<String, PendingSave> pending = new HashMap<>();
+	private ScheduledExecutorService executor;
+	private volatile long windowMs = 500;
+
+
+	/**
+	 * @param windowMs the time to wait for further save requests before writing, in milliseconds
+	 */
+	void setWindow(final long windowMs)
+	{
+		if (windowMs < 0)
+		{
+			throw new IllegalArgumentException("Save window must not be negative: " + windowMs);
+		}
+		this.windowMs = windowMs;
+	}
+
+
+	/**
+	 * Request a save of the given client
+	 *
+	 * @param cc the client to save
+	 * @return a future that completes with the result of the write that covers this request
+	 */
+	synchronized CompletableFuture<Boolean> save(final ConfigClient cc)
+	{
+		PendingSave save = pending.get(cc.getName());
+		if (save == null)
+		{
+			save = new PendingSave(cc);
+			pending.put(cc.getName(), save);
+			save.task = getExecutor().schedule(save::run, windowMs, TimeUnit.MILLISECONDS);
+		}
+		return save.future;
+	}
+
+
+	/**
+	 * Write all pending saves now and wait until they are done
+	 */
+	void flush()
+	{
+		List<PendingSave> saves;
+		synchronized (this)
+		{
+			saves = new ArrayList<>(pending.values());
+			pending.clear();
+		}
+		for (PendingSave save : saves)
+		{
+			if (save.task.cancel(false))
+			{
+				save.run();
+			} else
+			{
+				// already running on the saver thread
+				save.future.join();
+			}
+		}
+	}
+
+
+	private synchronized void remove(final PendingSave save)
+	{
+		pending.remove(save.cc.getName(), save);
+	}
+
+
+	private ScheduledExecutorService getExecutor()
+	{
+		if (executor == null)
+		{
+			executor = Executors.newSingleThreadScheduledExecutor(r -> {
+				Thread thread = new Thread(r, "ConfigSaver");
+				thread.setDaemon(true);
+				return thread;
+			});
+			Runtime.getRuntime().addShutdownHook(new Thread(this::flush, "ConfigSaver-shutdown"));
+		}
+		return executor;
+	}
+
+	private final class PendingSave
+	{
+		private final ConfigClient cc;
+		private final CompletableFuture<Boolean> future = new CompletableFuture<>();
+		private ScheduledFuture<?> task;
+
+
+		private PendingSave(final ConfigClient cc)
+		{
+			this.cc = cc;
+		}
+
+
+		private void run()
+		{
+			// requests from now on need a new write
+			remove(this);
+			try
+			{
+				future.complete(cc.saveCurrentConfig());
+			} catch (RuntimeException err)
+			{
+				log.error("Could not save config '{}'", cc.getName(), err);
+				future.completeExceptionally(err);
+			}
+		}
+	}
+}
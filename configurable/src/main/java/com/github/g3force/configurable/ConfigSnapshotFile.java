@@ -0,0 +1,236 @@
+/*
+ * *********************************************************
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - Tigers Mannheim
+ * Project: TIGERS - Sumatra
+ * Date: Oct 18, 2026
+ * *********************************************************
+ */
+package com.github.g3force.configurable;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Binary snapshot of a config file, used as a cache to load a category without parsing its XML file.
+ * <br>
+ * The snapshot stores modification time and size of the XML file it was written with and is only used
+ * as long as the XML file did not change. The XML file stays the source of truth.
+ * <br>
+ * Format (big endian): magic, schema version, XML modification time (nanos) and size,
+ * the table of class and node names, followed by the entries (class index, node index, value).
+ * All strings are length-prefixed UTF-8.
+ */
+final class ConfigSnapshotFile
+{
+	static final String SUFFIX = ".snapshot";
+
+	private static final int MAGIC = 0x43464753; // CFGS
+	private static final int SCHEMA_VERSION = 1;
+
+	/** interned class and node names -> index in the string table */
+	private final Map<String, Integer> names = new HashMap<>();
+	private final List<String> nameTable = new ArrayList<>();
+	private final List<int[]> entries = new ArrayList<>();
+	private final List<String> values = new ArrayList<>();
+
+
+	/**
+	 * @param xmlFile the config file
+	 * @return the path of the snapshot of the config file
+	 */
+	static Path getPath(final Path xmlFile)
+	{
+		String fileName = xmlFile.getFileName().toString();
+		return xmlFile.resolveSibling(fileName.substring(0, fileName.lastIndexOf('.')) + SUFFIX);
+	}
+
+
+	/**
+	 * Add an entry, as it is read from the config file
+	 *
+	 * @param className the name of the class declaring the field
+	 * @param nodeName 'field' or 'field:spezi'
+	 * @param value the trimmed, but still XML escaped value
+	 */
+	void add(final String className, final String nodeName, final String value)
+	{
+		entries.add(new int[] { intern(className), intern(nodeName) });
+		values.add(value);
+	}
+
+
+	private int intern(final String name)
+	{
+		return names.computeIfAbsent(name, n -> {
+			nameTable.add(n);
+			return nameTable.size() - 1;
+		});
+	}
+
+
+	/**
+	 * Write the snapshot. It is written to a temporary file first, so readers never see a partial snapshot.
+	 *
+	 * @param file the snapshot file
+	 * @param xmlTime the modification time of the config file
+	 * @param xmlSize the size of the config file
+	 * @throws IOException if the snapshot can not be written
+	 */
+	void write(final Path file, final FileTime xmlTime, final long xmlSize) throws IOException
+	{
+		Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp))))
+		{
+			out.writeInt(MAGIC);
+			out.writeInt(SCHEMA_VERSION);
+			out.writeLong(xmlTime.to(TimeUnit.NANOSECONDS));
+			out.writeLong(xmlSize);
+			out.writeInt(nameTable.size());
+			for (String name : nameTable)
+			{
+				writeString(out, name);
+			}
+			out.writeInt(entries.size());
+			for (int i = 0; i < entries.size(); i++)
+			{
+				out.writeInt(entries.get(i)[0]);
+				out.writeInt(entries.get(i)[1]);
+				writeString(out, values.get(i));
+			}
+		}
+		Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+	}
+
+
+	private static void writeString(final DataOutputStream out, final String str) throws IOException
+	{
+		byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+
+	/**
+	 * Read a snapshot into a heap buffer. The file is not memory mapped, as a mapping would keep
+	 * the file open until garbage collection and prevent replacing it on some platforms (e.g. Windows).
+	 *
+	 * @param file the snapshot file
+	 * @param xmlTime the current modification time of the config file
+	 * @param xmlSize the current size of the config file
+	 * @return the content or null, if there is no snapshot for the current config file
+	 * @throws IOException if the snapshot can not be read or is corrupt
+	 */
+	static ConfigFileContent read(final Path file, final FileTime xmlTime, final long xmlSize) throws IOException
+	{
+		if (xmlTime == null || !Files.exists(file))
+		{
+			return null;
+		}
+		Object event = ConfigEvents.beginParse();
+		try (FileChannel channel = FileChannel.open(file))
+		{
+			ByteBuffer buf = readFully(channel);
+			if (buf.getInt() != MAGIC || buf.getInt() != SCHEMA_VERSION
+					|| buf.getLong() != xmlTime.to(TimeUnit.NANOSECONDS) || buf.getLong() != xmlSize)
+			{
+				return null;
+			}
+			ConfigFileContent content = read(buf, xmlTime, xmlSize);
+			ConfigEvents.commitParse(event, "snapshot", content.getEntries().size());
+			return content;
+		} catch (BufferUnderflowException | IndexOutOfBoundsException err)
+		{
+			throw new IOException("Corrupt config snapshot: " + file, err);
+		}
+	}
+
+
+	private static ByteBuffer readFully(final FileChannel channel) throws IOException
+	{
+		long size = channel.size();
+		if (size > Integer.MAX_VALUE)
+		{
+			throw new IOException("Config snapshot too large: " + size);
+		}
+		ByteBuffer buf = ByteBuffer.allocate((int) size);
+		while (buf.hasRemaining())
+		{
+			if (channel.read(buf) < 0)
+			{
+				throw new IOException("Unexpected end of config snapshot");
+			}
+		}
+		buf.flip();
+		return buf;
+	}
+
+
+	private static ConfigFileContent read(final ByteBuffer buf, final FileTime xmlTime, final long xmlSize)
+			throws IOException
+	{
+		String[] nameTable = new String[checkedCount(buf)];
+		for (int i = 0; i < nameTable.length; i++)
+		{
+			nameTable[i] = readString(buf);
+		}
+
+		Class<?>[] classes = new Class<?>[nameTable.length];
+		int count = checkedCount(buf);
+		List<ConfigFileContent.Entry> contentEntries = new ArrayList<>(count);
+		for (int i = 0; i < count; i++)
+		{
+			int classIdx = buf.getInt();
+			String nodeName = nameTable[buf.getInt()];
+			String value = readString(buf);
+			if (classes[classIdx] == null)
+			{
+				classes[classIdx] = ConfigClassIndex.resolve(nameTable[classIdx]);
+			}
+			if (classes[classIdx] != null)
+			{
+				contentEntries.add(new ConfigFileContent.Entry(classes[classIdx], nodeName, value, ""));
+			}
+		}
+		return new ConfigFileContent(xmlTime, xmlSize, contentEntries);
+	}
+
+
+	private static int checkedCount(final ByteBuffer buf) throws IOException
+	{
+		int count = buf.getInt();
+		// each element needs at least 4 bytes
+		if (count < 0 || count > buf.remaining() / 4)
+		{
+			throw new IOException("Invalid count: " + count);
+		}
+		return count;
+	}
+
+
+	private static String readString(final ByteBuffer buf) throws IOException
+	{
+		int length = buf.getInt();
+		if (length < 0 || length > buf.remaining())
+		{
+			throw new IOException("Invalid string length: " + length);
+		}
+		byte[] bytes = new byte[length];
+		buf.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,134 @@
+/*
+ * *********************************************************
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - Tigers Mannheim
+ * Project: TIGERS - Sumatra
+ * Date: Oct 18, 2026
+ * *********************************************************
+ */
+package com.github.g3force.configurable;
+
+/**
+ * Typed handle to the current value of a single configurable field (and spezi).
+ * <br>
+ * Reads are thread-safe, take no lock and see overrides and reloads immediately.
+ * As long as the config does not change, {@link #get()} and the primitive getters do not allocate.
+ * The returned value is shared between all readers and must not be modified (e.g. arrays).
+ * Obtain a handle with {@link ConfigRegistration#getConfigValue(String, Class, String, String)}.
+ *
+ * @param <T> the type of the field
+ */
+public final class ConfigValue<T>
+{
+	private final ConfigAnnotationProcessor cap;
+	private final String key;
+	private volatile Cached cached;
+
+
+	private static final class Cached
+	{
+		private final long version;
+		private final Object value;
+		private final boolean numeric;
+		private final double doubleValue;
+		private final long longValue;
+
+
+		private Cached(final long version, final Object value)
+		{
+			this.version = version;
+			this.value = value;
+			numeric = value instanceof Number;
+			if (numeric)
+			{
+				doubleValue = ((Number) value).doubleValue();
+				longValue = ((Number) value).longValue();
+			} else
+			{
+				doubleValue = Double.NaN;
+				longValue = 0;
+			}
+		}
+	}
+
+
+	ConfigValue(final ConfigAnnotationProcessor cap, final Class<?> clazz, final String fieldName, final String spezi)
+	{
+		this.cap = cap;
+		key = ConfigAnnotationProcessor.getKey(clazz.getName(), fieldName, spezi);
+	}
+
+
+	private Cached current()
+	{
+		long version = cap.getVersion();
+		Cached c = cached;
+		if ((c == null) || (c.version != version))
+		{
+			if (!cap.hasValue(key))
+			{
+				throw new IllegalStateException("No configurable field registered for " + key);
+			}
+			c = new Cached(version, cap.getCurrentValue(key));
+			cached = c;
+		}
+		return c;
+	}
+
+
+	private Cached currentNumber()
+	{
+		Cached c = current();
+		if (!c.numeric)
+		{
+			throw new IllegalStateException("Configurable field " + key + " is not numeric: " + c.value);
+		}
+		return c;
+	}
+
+
+	/**
+	 * @return the current value
+	 */
+	@SuppressWarnings("unchecked")
+	public T get()
+	{
+		return (T) current().value;
+	}
+
+
+	/**
+	 * @return the current value of a numeric field
+	 * @throws IllegalStateException if the field is not numeric
+	 */
+	public double getAsDouble()
+	{
+		return currentNumber().doubleValue;
+	}
+
+
+	/**
+	 * @return the current value of a numeric field
+	 * @throws IllegalStateException if the field is not numeric
+	 */
+	public int getAsInt()
+	{
+		return (int) currentNumber().longValue;
+	}
+
+
+	/**
+	 * @return the current value of a numeric field
+	 * @throws IllegalStateException if the field is not numeric
+	 */
+	public long getAsLong()
+	{
+		return currentNumber().longValue;
+	}
+
+
+	@Override
+	public String toString()
+	{
+		return key + "=" + get();
+	}
+}
@@ -0,0 +1,168 @@
+/*
+ * *********************************************************
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - Tigers Mannheim
+ * Project: TIGERS - Sumatra
+ * Date: Oct 18, 2026
+ * *********************************************************
+ */
+package com.github.g3force.configurable;
+
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+
+/**
+ * Streams the field entries of a config file, as written by {@link ConfigXmlWriter}.
+ * <br>
+ * The root element carries the common base of all classes in its base attribute. Nested elements
+ * are resolved to packages and classes with {@link ConfigClassIndex}. The children of a class element
+ * are its fields, named 'field' or 'field:spezi'.
+ */
+final class ConfigXmlReader
+{
+	private static final XMLInputFactory FACTORY = createFactory();
+
+
+	private ConfigXmlReader()
+	{
+	}
+
+
+	/**
+	 * Consumer for the field entries of a config file
+	 */
+	@FunctionalInterface
+	interface IFieldConsumer
+	{
+		/**
+		 * @param clazz the class declaring the field
+		 * @param nodeName the element name: 'field' or 'field:spezi'
+		 * @param value the trimmed, but still XML escaped value
+		 * @param comment the comment attribute or an empty string
+		 */
+		void accept(Class<?> clazz, String nodeName, String value, String comment);
+	}
+
+
+	private static XMLInputFactory createFactory()
+	{
+		XMLInputFactory factory = XMLInputFactory.newFactory();
+		// element names of spezis contain a colon
+		factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, false);
+		factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+		factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+		factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+		return factory;
+	}
+
+
+	/**
+	 * Read all field entries from the given stream. The stream is not closed.
+	 *
+	 * @param in the config file content
+	 * @param consumer receives all field entries in document order
+	 * @throws XMLStreamException if the content is not well-formed
+	 */
+	static void read(final InputStream in, final IFieldConsumer consumer) throws XMLStreamException
+	{
+		Object event = ConfigEvents.beginParse();
+		XMLStreamReader reader = FACTORY.createXMLStreamReader(in);
+		try
+		{
+			int entries = read(reader, consumer);
+			ConfigEvents.commitParse(event, "xml", entries);
+		} finally
+		{
+			reader.close();
+		}
+	}
+
+
+	private static int read(final XMLStreamReader reader, final IFieldConsumer consumer) throws XMLStreamException
+	{
+		int entries = 0;
+		Deque<String> paths = new ArrayDeque<>();
+		StringBuilder text = new StringBuilder();
+		Class<?> clazz = null;
+		int classDepth = -1;
+		int depth = 0;
+		String nodeName = null;
+		String comment = null;
+
+		while (reader.hasNext())
+		{
+			switch (reader.next())
+			{
+				case XMLStreamConstants.START_ELEMENT:
+					depth++;
+					if (clazz == null)
+					{
+						String path = depth == 1 ? getAttribute(reader, "base")
+								: paths.peek() + "." + reader.getLocalName();
+						clazz = ConfigClassIndex.resolve(path);
+						if (clazz != null)
+						{
+							classDepth = depth;
+						}
+						paths.push(path);
+					} else if (depth == classDepth + 1)
+					{
+						nodeName = reader.getLocalName();
+						comment = getAttribute(reader, "comment");
+						text.setLength(0);
+					}
+					break;
+				case XMLStreamConstants.CHARACTERS:
+				case XMLStreamConstants.CDATA:
+				case XMLStreamConstants.SPACE:
+					if (clazz != null && depth == classDepth + 1)
+					{
+						text.append(reader.getText());
+					}
+					break;
+				case XMLStreamConstants.END_ELEMENT:
+					if (clazz != null && depth == classDepth + 1)
+					{
+						consumer.accept(clazz, nodeName, unescapeDelimiters(text.toString().trim()), comment);
+						entries++;
+					} else if (clazz == null || depth == classDepth)
+					{
+						clazz = null;
+						classDepth = -1;
+						paths.pop();
+					}
+					depth--;
+					break;
+				default:
+					break;
+			}
+		}
+		return entries;
+	}
+
+
+	private static String getAttribute(final XMLStreamReader reader, final String name)
+	{
+		String value = reader.getAttributeValue(null, name);
+		return value == null ? "" : value;
+	}
+
+
+	/**
+	 * Revert the list delimiter escaping of the writer ('\,' for ',').
+	 */
+	private static String unescapeDelimiters(final String value)
+	{
+		if (value.indexOf('\\') < 0)
+		{
+			return value;
+		}
+		return value.replace("\\,", ",");
+	}
+}
@@ -0,0 +1,211 @@
+/*
+ * *********************************************************
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - Tigers Mannheim
+ * Project: TIGERS - Sumatra
+ * Date: Oct 18, 2026
+ * *********************************************************
+ */
+package com.github.g3force.configurable;
+
+import java.io.OutputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+
+/**
+ * Streams config entries to the XML format of the config files.
+ * <br>
+ * The output is the same as the one of the former {@link org.apache.commons.configuration.XMLConfiguration} and
+ * {@link PrettyXMLOutputStream} combination: The root element is named by the common base of all classes,
+ * packages and classes below the base are nested elements, each level is indented by four spaces
+ * and whitespace-only values are written as empty elements.
+ */
+final class ConfigXmlWriter
+{
+	private static final XMLOutputFactory FACTORY = XMLOutputFactory.newFactory();
+	private static final String ENCODING = "UTF-8";
+	private static final String INDENT = "    ";
+	private static final String EMPTY_ROOT = "configuration";
+
+	private final String base;
+	private final Node root;
+
+
+	/**
+	 * @param base the common base of all classes or null, if there are no entries
+	 */
+	ConfigXmlWriter(final String base)
+	{
+		this.base = base;
+		root = new Node(base == null ? EMPTY_ROOT : base);
+	}
+
+
+	/**
+	 * Add an entry. Entries with the same path prefix are merged into the first node with this prefix.
+	 *
+	 * @param key the key relative to the base, with '.' separating the nodes
+	 * @param value the escaped value
+	 */
+	void add(final String key, final String value)
+	{
+		Node node = root;
+		for (String part : key.split("\\."))
+		{
+			if (!part.isEmpty())
+			{
+				node = node.children.computeIfAbsent(part, Node::new);
+			}
+		}
+		node.value = value;
+	}
+
+
+	/**
+	 * Write all entries to the given stream. The stream is not closed.
+	 *
+	 * @param out the target stream
+	 * @throws XMLStreamException if the entries can not be represented as XML or writing fails
+	 */
+	void write(final OutputStream out) throws XMLStreamException
+	{
+		if (base != null && base.isEmpty())
+		{
+			throw new XMLStreamException("Classes do not share a common package");
+		}
+		XMLStreamWriter writer = FACTORY.createXMLStreamWriter(out, ENCODING);
+		try
+		{
+			writer.writeStartDocument(ENCODING, "1.0");
+			if (root.children.isEmpty())
+			{
+				writer.writeEmptyElement(root.name);
+			} else
+			{
+				writer.writeStartElement(root.name);
+			}
+			if (base != null)
+			{
+				writer.writeAttribute("base", base);
+			}
+			if (!root.children.isEmpty())
+			{
+				writeChildren(writer, root, 0);
+				writer.writeEndElement();
+			}
+			writer.writeCharacters("\n");
+			writer.writeEndDocument();
+			writer.flush();
+		} finally
+		{
+			writer.close();
+		}
+	}
+
+
+	private void writeChildren(final XMLStreamWriter writer, final Node node, final int depth)
+			throws XMLStreamException
+	{
+		for (Node child : node.children.values())
+		{
+			writeIndent(writer, depth + 1);
+			writeNode(writer, child, depth + 1);
+		}
+		writeIndent(writer, depth);
+	}
+
+
+	private void writeNode(final XMLStreamWriter writer, final Node node, final int depth)
+			throws XMLStreamException
+	{
+		if (!node.children.isEmpty())
+		{
+			writer.writeStartElement(node.name);
+			writeChildren(writer, node, depth);
+			writer.writeEndElement();
+		} else if (isBlank(node.value))
+		{
+			writer.writeEmptyElement(node.name);
+		} else
+		{
+			writer.writeStartElement(node.name);
+			writeValue(writer, node.value);
+			writer.writeEndElement();
+		}
+	}
+
+
+	private void writeIndent(final XMLStreamWriter writer, final int depth) throws XMLStreamException
+	{
+		StringBuilder sb = new StringBuilder(1 + depth * INDENT.length());
+		sb.append('\n');
+		for (int i = 0; i < depth; i++)
+		{
+			sb.append(INDENT);
+		}
+		writer.writeCharacters(sb.toString());
+	}
+
+
+	private void writeValue(final XMLStreamWriter writer, final String value) throws XMLStreamException
+	{
+		StringBuilder sb = new StringBuilder(value.length() + 8);
+		for (int i = 0; i < value.length(); i++)
+		{
+			char c = value.charAt(i);
+			if (c == ',')
+			{
+				// list delimiter escaping of XMLConfiguration
+				sb.append('\\');
+				sb.append(c);
+			} else if (c == '\r')
+			{
+				writer.writeCharacters(sb.toString());
+				sb.setLength(0);
+				writer.writeEntityRef("#13");
+			} else if (c < 0x20 && c != '\t' && c != '\n')
+			{
+				throw new XMLStreamException("Invalid XML character 0x" + Integer.toHexString(c) + " in value");
+			} else
+			{
+				sb.append(c);
+			}
+		}
+		writer.writeCharacters(sb.toString());
+	}
+
+
+	private static boolean isBlank(final String value)
+	{
+		if (value == null)
+		{
+			return true;
+		}
+		for (int i = 0; i < value.length(); i++)
+		{
+			char c = value.charAt(i);
+			if (c != ' ' && c != '\t' && c != '\n' && c != '\r')
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static final class Node
+	{
+		private final String name;
+		private final Map<String, Node> children = new LinkedHashMap<>();
+		private String value;
+
+
+		private Node(final String name)
+		{
+			this.name = name;
+		}
+	}
+}
@@ -0,0 +1,32 @@
+/*
+ * *********************************************************
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - Tigers Mannheim
+ * Project: TIGERS - Sumatra
+ * Date: Oct 18, 2026
+ * *********************************************************
+ */
+package com.github.g3force.configurable;
+
+import java.util.List;
+
+
+/**
+ * Reflection-free access to the {@link Configurable} fields of a single class.
+ * Implementations are generated at compile time by the configurable-processor
+ * as {@code <ClassName>_ConfigAccessor} in the package of the configurable class, where '_' in the class name
+ * is escaped as '__' and the '$' of nested classes is replaced by '_1'.
+ * If present, it is used instead of reflection.
+ */
+public interface IConfigAccessor
+{
+	/**
+	 * @return the binary name of the class this accessor was generated for
+	 */
+	String getClassName();
+
+
+	/**
+	 * @return all configurable fields declared by the class
+	 */
+	List<ConfigFieldDescriptor> getFields();
+}
@@ -0,0 +1,45 @@
+/*
+ * *********************************************************
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - Tigers Mannheim
+ * Project: TIGERS - Sumatra
+ * Date: Oct 18, 2026
+ * *********************************************************
+ */
+package com.github.g3force.configurable;
+
+/**
+ * Records events of config operations, see {@link ConfigEvents}.
+ * Each begin method returns an event or null, if the event is disabled.
+ * The commit methods are only called with non-null events.
+ */
+interface IConfigEventRecorder
+{
+	Object beginLoad();
+
+
+	void commitLoad(Object event, String category, int changes);
+
+
+	Object beginParse();
+
+
+	void commitParse(Object event, String format, int entries);
+
+
+	Object beginApply();
+
+
+	void commitApply(Object event, String category, String spezi, Class<?> target, int fieldCount);
+
+
+	Object beginOverride();
+
+
+	void commitOverride(Object event, String category, Class<?> clazz, String fieldName, String value);
+
+
+	Object beginSave();
+
+
+	void commitSave(Object event, String category, String file, long bytes, boolean success);
+}
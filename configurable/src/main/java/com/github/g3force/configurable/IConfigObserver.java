@@ -0,0 +1,37 @@
+/*
+ * *********************************************************
+ * Copyright (c) 2009 - 2011, DHBW Mannheim - Tigers Mannheim
+ * Project: TIGERS - Sumatra
+ * Date: 25.11.2011
+ * Author(s): Gero
+ * *********************************************************
+ */
+package com.github.g3force.configurable;
+
+import java.util.List;
+
+
+/**
+ * Used to observe a config client.
+ */
+public interface IConfigObserver
+{
+	default void afterApply(final IConfigClient configClient)
+	{
+	}
+
+
+	/**
+	 * Called after values were applied, with the values that changed since the last apply,
+	 * e.g. by reloading the config file. Override this to skip unrelated changes or to update derived
+	 * state incrementally. The list may be empty, if values were only re-applied.
+	 * By default, {@link #afterApply(IConfigClient)} is called.
+	 *
+	 * @param configClient the config client that applied the values
+	 * @param changes the changed values
+	 */
+	default void afterApply(final IConfigClient configClient, final List<ConfigChange> changes)
+	{
+		afterApply(configClient);
+	}
+}
@@ -38,6 +38,9 @@ public class ConfigClass4
 	@Configurable(comment = "Document this field")
 	static double testStoredDifferent = 5;
 
+	@Configurable(comment = "Document this field", defValue = "1;2;3")
+	static int[] testArray = { 1, 2, 3 };
+
 	static
 	{
 		ConfigRegistration.registerClass("read", ConfigClass4.class);
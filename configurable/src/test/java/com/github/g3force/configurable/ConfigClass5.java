@@ -0,0 +1,21 @@
+/*
+ * *********************************************************
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - Tigers Mannheim
+ * Project: TIGERS - Sumatra
+ * Date: Oct 18, 2026
+ * *********************************************************
+ */
+package com.github.g3force.configurable;
+
+
+/**
+ * Not registered by itself, only found by scanning
+ */
+public class ConfigClass5
+{
+	@Configurable(comment = "Document this field", category = "scanned", defValue = "5")
+	static int scannedValue;
+
+	@Configurable(comment = "Document this field", spezis = { "", "CONF1" }, defValueSpezis = { "1", "2" })
+	static double scannedSpezi;
+}
@@ -0,0 +1,32 @@
+/*
+ * *********************************************************
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - Tigers Mannheim
+ * Project: TIGERS - Sumatra
+ * Date: Oct 18, 2026
+ * *********************************************************
+ */
+package com.github.g3force.configurable;
+
+
+/**
+ * Configurable class with an accessor like the one generated by the configurable-processor
+ * ({@link ConfigClass6_ConfigAccessor})
+ */
+public class ConfigClass6
+{
+	@Configurable(comment = "Document this field", defValue = "4.0")
+	static double testGenerated;
+
+	@Configurable(comment = "Document this field", defValue = "5")
+	int testGeneratedInstance;
+
+	/**
+	 * Nested class whose accessor name is taken by an accessor of another class
+	 * ({@link ConfigClass6_1Foreign_ConfigAccessor})
+	 */
+	public static class Foreign
+	{
+		@Configurable(comment = "Document this field", defValue = "7")
+		static int testForeign;
+	}
+}
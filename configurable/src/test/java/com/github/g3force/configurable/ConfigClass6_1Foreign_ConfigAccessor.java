@@ -0,0 +1,42 @@
+/*
+ * *********************************************************
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - Tigers Mannheim
+ * Project: TIGERS - Sumatra
+ * Date: Oct 18, 2026
+ * *********************************************************
+ */
+package com.github.g3force.configurable;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * Accessor at the name of the accessor of {@link ConfigClass6.Foreign}, but generated for another class.
+ * It must not be used for {@link ConfigClass6.Foreign}.
+ */
+public final class ConfigClass6_1Foreign_ConfigAccessor implements IConfigAccessor
+{
+	static final AtomicInteger sets = new AtomicInteger();
+
+	private static final List<ConfigFieldDescriptor> FIELDS = Collections.singletonList(
+			new ConfigFieldDescriptor("testForeign", int.class, true, "Document this field", new String[] {},
+					"8", new String[] {}, "",
+					(obj, value) -> sets.incrementAndGet(),
+					obj -> 0));
+
+
+	@Override
+	public String getClassName()
+	{
+		return "com.github.g3force.configurable.ConfigClass6_Foreign";
+	}
+
+
+	@Override
+	public List<ConfigFieldDescriptor> getFields()
+	{
+		return FIELDS;
+	}
+}
@@ -0,0 +1,60 @@
+/*
+ * *********************************************************
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - Tigers Mannheim
+ * Project: TIGERS - Sumatra
+ * Date: Oct 18, 2026
+ * *********************************************************
+ */
+package com.github.g3force.configurable;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * Same as the accessor the configurable-processor generates for {@link ConfigClass6},
+ * but counts the calls of the setters and getters.
+ */
+public final class ConfigClass6_ConfigAccessor implements IConfigAccessor
+{
+	static final AtomicInteger sets = new AtomicInteger();
+	static final AtomicInteger gets = new AtomicInteger();
+
+	private static final List<ConfigFieldDescriptor> FIELDS = Collections.unmodifiableList(Arrays.asList(
+			new ConfigFieldDescriptor("testGenerated", double.class, true, "Document this field", new String[] {},
+					"4.0", new String[] {}, "",
+					(obj, value) -> {
+						sets.incrementAndGet();
+						ConfigClass6.testGenerated = (Double) value;
+					},
+					obj -> {
+						gets.incrementAndGet();
+						return ConfigClass6.testGenerated;
+					}),
+			new ConfigFieldDescriptor("testGeneratedInstance", int.class, false, "Document this field",
+					new String[] {}, "5", new String[] {}, "",
+					(obj, value) -> {
+						sets.incrementAndGet();
+						((ConfigClass6) obj).testGeneratedInstance = (Integer) value;
+					},
+					obj -> {
+						gets.incrementAndGet();
+						return ((ConfigClass6) obj).testGeneratedInstance;
+					})));
+
+
+	@Override
+	public String getClassName()
+	{
+		return ConfigClass6.class.getName();
+	}
+
+
+	@Override
+	public List<ConfigFieldDescriptor> getFields()
+	{
+		return FIELDS;
+	}
+}
@@ -0,0 +1,80 @@
+/*
+ * *********************************************************
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - Tigers Mannheim
+ * Project: TIGERS - Sumatra
+ * Date: Oct 18, 2026
+ * *********************************************************
+ */
+package com.github.g3force.configurable;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import org.junit.Test;
+
+
+/**
+ * Tests of the flight recorder events. Only compiled on JDK 11 and newer (profile 'jfr').
+ */
+public class ConfigJfrEventsTest
+{
+	@Test
+	public void testFlightRecorderEvents() throws Exception
+	{
+		ConfigAnnotationProcessor cap = new ConfigAnnotationProcessor("jfr");
+		cap.loadClass(ConfigClass2.class, false);
+		Path file = Files.createTempFile("config", ".jfr");
+		try (Recording recording = new Recording())
+		{
+			recording.enable("com.github.g3force.configurable.Apply");
+			recording.start();
+			cap.applySpezi(new ConfigClass2(), "CONF1");
+			recording.stop();
+			recording.dump(file);
+
+			List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+			assertThat(events).hasSize(1);
+			assertThat(events.get(0).getString("category")).isEqualTo("jfr");
+			assertThat(events.get(0).getString("spezi")).isEqualTo("CONF1");
+			assertThat(events.get(0).getInt("fieldCount")).isPositive();
+		} finally
+		{
+			Files.deleteIfExists(file);
+		}
+	}
+
+
+	@Test
+	public void testDisabledByDefault() throws Exception
+	{
+		ConfigAnnotationProcessor cap = new ConfigAnnotationProcessor("jfr");
+		cap.loadClass(ConfigClass2.class, false);
+		Path file = Files.createTempFile("config", ".jfr");
+		try (Recording recording = new Recording(Configuration.getConfiguration("default")))
+		{
+			recording.start();
+			for (int i = 0; i < 100; i++)
+			{
+				cap.applySpezi(new ConfigClass2(), "CONF1");
+			}
+			recording.stop();
+			recording.dump(file);
+
+			assertThat(RecordingFile.readAllEvents(file).stream()
+					.map(event -> event.getEventType().getName())
+					.filter(name -> name.startsWith("com.github.g3force.configurable."))
+					.count()).isZero();
+		} finally
+		{
+			Files.deleteIfExists(file);
+		}
+	}
+}
@@ -0,0 +1,866 @@
+/*
+ * *********************************************************
+ * Copyright (c) 2009 - 2016, DHBW Mannheim - Tigers Mannheim
+ * Project: TIGERS - Sumatra
+ * Date: Mar 10, 2016
+ * Author(s): Nicolai Ommer <nicolai.ommer@gmail.com>
+ * *********************************************************
+ */
+package com.github.g3force.configurable;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Stream;
+
+import javax.management.ObjectName;
+
+import org.apache.commons.configuration.HierarchicalConfiguration;
+import org.apache.commons.configuration.XMLConfiguration;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.github.g3force.configurable.ConfigClass1.ETest;
+import com.github.g3force.configurable.nested.ConfigClass7;
+
+
+public class ConfigurableTest
+{
+	private static final Logger log = LogManager.getLogger(ConfigurableTest.class.getName());
+
+	private static final String CATEGORY = "default";
+	private final Path configFilePath = Paths.get("config", CATEGORY + ".xml");
+
+
+	@Before
+	public void before()
+	{
+		deleteConfigFile();
+	}
+
+
+	private void deleteConfigFile()
+	{
+		try
+		{
+			Path p = Paths.get("config", CATEGORY + ".xml");
+			if (p.toFile().exists())
+			{
+				Files.delete(p);
+			}
+		} catch (IOException e)
+		{
+			log.error("", e);
+		}
+	}
+
+
+	@Test
+	public void testSave()
+	{
+		// save current config
+		ConfigRegistration.save(CATEGORY);
+		// the config file will only contain values that differ from their default value
+		Assert.assertTrue(configFilePath.toFile().exists());
+	}
+
+
+	@Test
+	public void testSaveAsync()
+	{
+		ConfigRegistration.setSaveWindow(60_000);
+		try
+		{
+			CompletableFuture<Boolean> first = ConfigRegistration.saveAsync(CATEGORY);
+			CompletableFuture<Boolean> second = ConfigRegistration.saveAsync(CATEGORY);
+			// both requests are coalesced into one write
+			Assert.assertSame(first, second);
+			Assert.assertFalse(first.isDone());
+
+			ConfigRegistration.flushSaves();
+			Assert.assertTrue(first.join());
+			Assert.assertTrue(configFilePath.toFile().exists());
+		} finally
+		{
+			ConfigRegistration.setSaveWindow(500);
+		}
+	}
+
+
+	@Test
+	public void testWriterMatchesXmlConfiguration() throws Exception
+	{
+		ConfigClass7.testComma = "a,b,,c";
+		ConfigClass7.testEntities = "<a & \"b\" 'c'>";
+		ConfigClass7.testLineBreaks = "line1\r\nline2\nline3";
+		ConfigClass7.testBlank = "   ";
+		ConfigClass7.testPadded = "  padded  ";
+		ConfigClass7.testSpeziString = "3,4";
+		ConfigAnnotationProcessor cap = new ConfigAnnotationProcessor("xmlwriter");
+		cap.loadClasses(Arrays.asList(ConfigClass1.class, ConfigClass2.class, ConfigClass7.class), true);
+		String base = ConfigClass1.class.getPackage().getName();
+		cap.loadConfiguration(new ByteArrayInputStream(("<?xml version=\"1.0\" encoding=\"UTF-8\"?><" + base
+				+ " base=\"" + base + "\">\n"
+				+ "<ConfigClass2><testSpezi:CONF1>8.0</testSpezi:CONF1></ConfigClass2>\n"
+				+ "<nested><ConfigClass7><testSpeziString:CONF1>5\\,6</testSpeziString:CONF1></ConfigClass7></nested>\n"
+				+ "</" + base + ">\n").getBytes(StandardCharsets.UTF_8)));
+
+		// output of the former writer
+		ByteArrayOutputStream expected = new ByteArrayOutputStream();
+		try (OutputStream out = new PrettyXMLOutputStream(expected, "UTF-8"))
+		{
+			new XMLConfiguration(cap.getMinimalConfig()).save(out, "UTF-8");
+		}
+		ByteArrayOutputStream actual = new ByteArrayOutputStream();
+		cap.writeMinimalConfig(actual);
+
+		String xml = new String(actual.toByteArray(), StandardCharsets.UTF_8);
+		assertThat(xml).contains("<nested>", "a\\,b\\,\\,c", "&amp;lt;a &amp;amp;", "&#13;", "<testBlank/>",
+				"<testSpezi:CONF1>", "<testSpeziString:CONF1>");
+		assertThat(xml).isEqualTo(new String(expected.toByteArray(), StandardCharsets.UTF_8));
+		assertThat(actual.toByteArray()).isEqualTo(expected.toByteArray());
+	}
+
+
+	@Test
+	public void testSaveLoadCommas() throws IOException
+	{
+		ConfigClient cc = new ConfigClient("config", "commas");
+		cc.putClass(ConfigClass7.class);
+		ConfigClass7.testComma = "a,b,,c";
+		ConfigClass7.testSpeziString = "3,4";
+		cc.readClasses();
+		Path file = Paths.get("config", "commas.xml");
+		try
+		{
+			assertThat(cc.saveCurrentConfig()).isTrue();
+			assertThat(new String(Files.readAllBytes(file), StandardCharsets.UTF_8))
+					.contains("<testComma>a\\,b\\,\\,c</testComma>");
+
+			ConfigClass7.testComma = "changed";
+			ConfigClass7.testSpeziString = "changed";
+			cc.loadConfig();
+			cc.applyConfig();
+			// the list delimiter escaping is removed when loading
+			assertThat(ConfigClass7.testComma).isEqualTo("a,b,,c");
+			assertThat(ConfigClass7.testSpeziString).isEqualTo("3,4");
+		} finally
+		{
+			Files.deleteIfExists(file);
+		}
+	}
+
+
+	@Test
+	public void testChangeValue()
+	{
+		Assert.assertFalse(ConfigClass1.testBool);
+
+		// change a value
+		ConfigClass1.testBool = true;
+		// reread the value from all classes into internal config
+		ConfigRegistration.readClasses(CATEGORY);
+
+		// change value back
+		ConfigClass1.testBool = false;
+		ConfigClass1.testEnum = ConfigClass1.ETest.TWO;
+
+		// apply internal config
+		ConfigRegistration.applyConfig(CATEGORY);
+		// value should be changed back to true
+		Assert.assertTrue(ConfigClass1.testBool);
+		Assert.assertSame(ConfigClass1.testEnum, ETest.ONE);
+
+		// save internal config to file
+		ConfigRegistration.save(CATEGORY);
+
+		// config file should exist and contain testbool
+		Assert.assertTrue(configFilePath.toFile().exists());
+	}
+
+
+	@Test
+	public void testSpezi()
+	{
+		// default value for fields with spezi is the empty spezi
+		Assert.assertEquals(1, ConfigClass2.testSpezi, 0.0001);
+
+		ConfigRegistration.applySpezi(CATEGORY, "CONF1");
+		Assert.assertEquals(2, ConfigClass2.testSpezi, 0.0);
+		ConfigRegistration.applySpezi(CATEGORY, "CONF2");
+		Assert.assertEquals(3, ConfigClass2.testSpezi, 0.0);
+		ConfigRegistration.applySpezi(CATEGORY, "");
+		Assert.assertEquals(1, ConfigClass2.testSpezi, 0.0);
+	}
+
+
+	@Test
+	public void testInstance()
+	{
+		ConfigClass3 cc = new ConfigClass3();
+		Assert.assertEquals(2, cc.testSpezi, 0.0001);
+	}
+
+
+	@Test
+	public void testInstanceSpezis()
+	{
+		ConfigClass3 cc = new ConfigClass3();
+		ConfigRegistration.applySpezis(cc, CATEGORY, "CONF2");
+		Assert.assertEquals(3, cc.testSpezi, 0.0001);
+		ConfigRegistration.applySpezis(cc, CATEGORY, "");
+		Assert.assertEquals(1, cc.testSpezi, 0.0001);
+	}
+
+
+	@Test
+	public void testBulkApply()
+	{
+		List<ConfigClass3> objects = new ArrayList<>();
+		for (int i = 0; i < 5000; i++)
+		{
+			objects.add(new ConfigClass3());
+		}
+		ConfigRegistration.applySpezisBulk(objects, CATEGORY, "CONF2");
+		assertThat(objects).allMatch(o -> o.testSpezi == 3);
+	}
+
+
+	@Test
+	public void testTrackInstance() throws InterruptedException
+	{
+		ConfigAnnotationProcessor cap = new ConfigAnnotationProcessor("tracking");
+		cap.loadClass(ConfigClass3.class, false);
+		ConfigClass3 tracked = new ConfigClass3();
+		ConfigClass3 untracked = new ConfigClass3();
+		cap.trackInstance(tracked, "CONF2");
+		Assert.assertEquals(3, tracked.testSpezi, 0.0001);
+
+		cap.overrideField(ConfigClass3.class, "testSpezi", "42");
+		Assert.assertEquals(42, tracked.testSpezi, 0.0001);
+		Assert.assertEquals(2, untracked.testSpezi, 0.0001);
+
+		cap.untrackInstance(tracked);
+		cap.overrideField(ConfigClass3.class, "testSpezi", "43");
+		Assert.assertEquals(42, tracked.testSpezi, 0.0001);
+
+		// tracking does not prevent garbage collection
+		cap.trackInstance(new ConfigClass3(), "CONF1");
+		for (int i = 0; i < 50 && cap.getTrackedInstanceCount() > 0; i++)
+		{
+			System.gc();
+			Thread.sleep(10);
+		}
+		assertThat(cap.getTrackedInstanceCount()).isZero();
+	}
+
+
+	@Test
+	public void testTrackInstanceReload() throws IOException
+	{
+		Path file = Paths.get("config", "trackreload.xml");
+		try
+		{
+			ConfigRegistration.registerClass("trackreload", ConfigClass3.class);
+			ConfigClass3 tracked = new ConfigClass3();
+			ConfigRegistration.trackInstance(tracked, "trackreload", "CONF2");
+			Assert.assertEquals(3, tracked.testSpezi, 0.0001);
+
+			String base = ConfigClass3.class.getName();
+			Files.write(file, ("<?xml version=\"1.0\" encoding=\"UTF-8\"?><" + base + " base=\"" + base + "\">\n"
+					+ "    <testSpezi:CONF2>9.0</testSpezi:CONF2>\n"
+					+ "</" + base + ">\n").getBytes(StandardCharsets.UTF_8));
+			ConfigRegistration.loadConfig("trackreload");
+			ConfigRegistration.applyConfig("trackreload");
+			Assert.assertEquals(9, tracked.testSpezi, 0.0001);
+
+			// a full apply applies all values, not only the changed ones
+			tracked.testSpezi = 0;
+			ConfigRegistration.applyConfig("trackreload");
+			Assert.assertEquals(9, tracked.testSpezi, 0.0001);
+		} finally
+		{
+			Files.deleteIfExists(file);
+		}
+	}
+
+
+	@Test
+	public void testRegisterPackages() throws IOException
+	{
+		Map<String, Set<String>> found = ConfigClassScanner.scan(getClass().getClassLoader(),
+				Collections.singletonList(getClass().getPackage().getName()));
+		assertThat(found).containsEntry(ConfigClass1.class.getName(), Collections.singleton(""));
+		assertThat(found.get(ConfigClass5.class.getName())).containsExactly("", "scanned");
+		assertThat(found).doesNotContainKey(ConfigurableTest.class.getName());
+
+		Map<String, List<Class<?>>> registered = ConfigRegistration.registerPackages(null,
+				getClass().getPackage().getName());
+		assertThat(registered).containsOnlyKeys("scanned");
+		assertThat(registered.get("scanned")).containsExactly(ConfigClass5.class);
+		Assert.assertEquals(5, ConfigClass5.scannedValue);
+		ConfigValue<Double> value = ConfigRegistration.getConfigValue("scanned", ConfigClass5.class, "scannedSpezi",
+				"CONF1");
+		Assert.assertEquals(2.0, value.get(), 1e-10);
+	}
+
+
+	@Test
+	public void testScanJar() throws IOException
+	{
+		Path jar = Files.createTempFile("configurable-scan", ".jar");
+		try
+		{
+			String classFile = ConfigClass5.class.getName().replace('.', '/') + ".class";
+			try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar));
+					InputStream in = getClass().getClassLoader().getResourceAsStream(classFile))
+			{
+				// the scanner only reads the class file, so it does not need to match the entry name
+				out.putNextEntry(new JarEntry("jarscan/"));
+				out.putNextEntry(new JarEntry("jarscan/Scanned.class"));
+				byte[] buf = new byte[8192];
+				int n;
+				while ((n = in.read(buf)) > 0)
+				{
+					out.write(buf, 0, n);
+				}
+			}
+			try (URLClassLoader loader = new URLClassLoader(new URL[] { jar.toUri().toURL() }, null))
+			{
+				Map<String, Set<String>> found = ConfigClassScanner.scan(loader, Collections.singletonList("jarscan"));
+				assertThat(found).containsOnlyKeys("jarscan.Scanned");
+				assertThat(found.get("jarscan.Scanned")).containsExactly("", "scanned");
+			}
+		} finally
+		{
+			Files.deleteIfExists(jar);
+		}
+	}
+
+
+	@Test
+	public void testCallback()
+	{
+		ConfigRegistration.registerConfigurableCallback(CATEGORY, new IConfigObserver()
+		{
+			@Override
+			public void afterApply(final IConfigClient configClient)
+			{
+				ConfigClass1.testDouble = 10;
+			}
+		});
+
+		ConfigClass1.testDouble = -1;
+
+		ConfigRegistration.applyConfig(CATEGORY);
+
+		Assert.assertEquals(10, ConfigClass1.testDouble, 0.0001);
+	}
+
+
+	@Test
+	public void testChangeCallback()
+	{
+		ConfigClient cc = new ConfigClient("config", "changes");
+		cc.putClass(ConfigClass2.class);
+		cc.loadConfig();
+		List<ConfigChange> applied = new ArrayList<>();
+		cc.addObserver(new IConfigObserver()
+		{
+			@Override
+			public void afterApply(final IConfigClient configClient, final List<ConfigChange> changes)
+			{
+				applied.addAll(changes);
+			}
+		});
+
+		cc.getConfig().setProperty("testSpezi:CONF2", "7.0");
+		cc.applyChangedConfig();
+
+		assertThat(applied).hasSize(1);
+		assertThat(applied.get(0).getOldValue()).isEqualTo("3.0");
+		assertThat(applied.get(0).getNewValue()).isEqualTo("7.0");
+	}
+
+
+	@Test
+	public void testChangeCallbackReload() throws IOException
+	{
+		ConfigClient cc = new ConfigClient("config", "observe");
+		cc.putClass(ConfigClass2.class);
+		cc.loadConfig();
+		cc.applyConfig();
+		List<List<ConfigChange>> applied = new ArrayList<>();
+		cc.addObserver(new IConfigObserver()
+		{
+			@Override
+			public void afterApply(final IConfigClient configClient, final List<ConfigChange> changes)
+			{
+				applied.add(changes);
+			}
+		});
+		Path file = Paths.get("config", "observe.xml");
+		try
+		{
+			String base = ConfigClass2.class.getName();
+			Files.write(file, ("<?xml version=\"1.0\" encoding=\"UTF-8\"?><" + base + " base=\"" + base + "\">\n"
+					+ "    <testSpezi:CONF1>8.0</testSpezi:CONF1>\n"
+					+ "</" + base + ">\n").getBytes(StandardCharsets.UTF_8));
+			cc.loadConfig();
+			cc.applyConfig();
+			cc.applyConfig();
+
+			assertThat(applied).hasSize(2);
+			assertThat(applied.get(0)).hasSize(1);
+			assertThat(applied.get(0).get(0).getSpezi()).isEqualTo("CONF1");
+			assertThat(applied.get(0).get(0).getOldValue()).isEqualTo("2.0");
+			assertThat(applied.get(0).get(0).getNewValue()).isEqualTo("8.0");
+			// nothing changed since the last apply
+			assertThat(applied.get(1)).isEmpty();
+		} finally
+		{
+			Files.deleteIfExists(file);
+		}
+	}
+
+
+	@Test
+	public void testInitializeRetry()
+	{
+		ConfigClient cc = new ConfigClient("config", "retry");
+		cc.putClass(ConfigClass2.class);
+		AtomicInteger applies = new AtomicInteger();
+		cc.addObserver(new IConfigObserver()
+		{
+			@Override
+			public void afterApply(final IConfigClient configClient)
+			{
+				if (applies.incrementAndGet() == 1)
+				{
+					throw new IllegalStateException("first apply fails");
+				}
+			}
+		});
+		assertThatThrownBy(cc::initialize).isInstanceOf(IllegalStateException.class);
+		// a failed initialization must not block the next attempt
+		cc.initialize();
+		assertThat(applies.get()).isEqualTo(2);
+		cc.initialize();
+		assertThat(applies.get()).isEqualTo(2);
+	}
+
+
+	@Test
+	public void testReloadAndApplyChanged() throws IOException
+	{
+		Path file = Paths.get("config", "reload.xml");
+		double before = ConfigClass2.testSpezi;
+		try
+		{
+			ConfigRegistration.registerClass("reload", ConfigClass2.class);
+			ConfigRegistration.applyConfig("reload");
+			assertThat(ConfigClass2.testSpezi).isEqualTo(1.0, within(1e-10));
+
+			String base = ConfigClass2.class.getName();
+			Files.write(file, ("<?xml version=\"1.0\" encoding=\"UTF-8\"?><" + base + " base=\"" + base + "\">\n"
+					+ "    <testSpezi>9.0</testSpezi>\n"
+					+ "</" + base + ">\n").getBytes(StandardCharsets.UTF_8));
+			ConfigRegistration.loadConfig("reload");
+			assertThat(ConfigClass2.testSpezi).isEqualTo(1.0, within(1e-10));
+			ConfigRegistration.applyChangedConfig("reload");
+			assertThat(ConfigClass2.testSpezi).isEqualTo(9.0, within(1e-10));
+		} finally
+		{
+			ConfigClass2.testSpezi = before;
+			Files.deleteIfExists(file);
+		}
+	}
+
+
+	@Test
+	public void testSaveBackups() throws IOException
+	{
+		ConfigClient cc = new ConfigClient("config", "backup");
+		cc.putClass(ConfigClass2.class);
+		cc.loadConfig();
+		cc.setBackupCount(2);
+		try
+		{
+			for (int i = 0; i < 3; i++)
+			{
+				Assert.assertTrue(cc.saveCurrentConfig());
+			}
+			assertThat(Paths.get("config", "backup.xml")).exists();
+			assertThat(Paths.get("config", "backup.xml.1")).exists();
+			assertThat(Paths.get("config", "backup.xml.2")).exists();
+			assertThat(Paths.get("config", "backup.xml.3")).doesNotExist();
+			try (Stream<Path> files = Files.list(Paths.get("config")))
+			{
+				assertThat(files.filter(p -> p.toString().endsWith(".tmp"))).isEmpty();
+			}
+		} finally
+		{
+			for (String file : new String[] { "backup.xml", "backup.xml.1", "backup.xml.2" })
+			{
+				Files.deleteIfExists(Paths.get("config", file));
+			}
+		}
+	}
+
+
+	@Test
+	public void testHotReload() throws Exception
+	{
+		ConfigClient cc = new ConfigClient("config", "watch");
+		cc.putClass(ConfigClass2.class);
+		cc.loadConfig();
+		ConfigRegistration.registerConfigClient(cc);
+		CompletableFuture<List<ConfigChange>> applied = new CompletableFuture<>();
+		cc.addObserver(new IConfigObserver()
+		{
+			@Override
+			public void afterApply(final IConfigClient configClient, final List<ConfigChange> changes)
+			{
+				applied.complete(changes);
+			}
+		});
+		Path file = Paths.get("config", "watch.xml");
+		Assert.assertTrue(ConfigRegistration.startWatching());
+		try
+		{
+			// own saves are not reloaded
+			Assert.assertTrue(cc.saveCurrentConfig());
+			Assert.assertFalse(cc.reloadIfModified());
+
+			String base = ConfigClass2.class.getName();
+			Files.write(file, ("<?xml version=\"1.0\" encoding=\"UTF-8\"?><" + base + " base=\"" + base + "\">\n"
+					+ "    <testSpezi:CONF2>9.0</testSpezi:CONF2>\n"
+					+ "</" + base + ">\n").getBytes(StandardCharsets.UTF_8));
+
+			List<ConfigChange> changes = applied.get(10, TimeUnit.SECONDS);
+			assertThat(changes).hasSize(1);
+			assertThat(changes.get(0).getSpezi()).isEqualTo("CONF2");
+			assertThat(changes.get(0).getNewValue()).isEqualTo("9.0");
+		} finally
+		{
+			ConfigRegistration.stopWatching();
+			Files.deleteIfExists(file);
+		}
+	}
+
+
+	@Test
+	public void testPreload() throws IOException
+	{
+		Path file = Paths.get("config", "preload.xml");
+		String base = ConfigClass2.class.getName();
+		Files.write(file, ("<?xml version=\"1.0\" encoding=\"UTF-8\"?><" + base + " base=\"" + base + "\">\n"
+				+ "    <testSpezi:CONF1>11.0</testSpezi:CONF1>\n"
+				+ "</" + base + ">\n").getBytes(StandardCharsets.UTF_8));
+		try
+		{
+			ConfigRegistration.preload().join();
+			ConfigRegistration.registerClass("preload", ConfigClass2.class);
+			ConfigValue<Double> value = ConfigRegistration.getConfigValue("preload", ConfigClass2.class, "testSpezi",
+					"CONF1");
+			assertThat(value.getAsDouble()).isEqualTo(11.0, within(1e-10));
+		} finally
+		{
+			Files.deleteIfExists(file);
+		}
+	}
+
+
+	@Test
+	public void testRegisterFromThreads() throws Exception
+	{
+		Path file = Paths.get("config", "deferred.xml");
+		String base = ConfigClass2.class.getName();
+		Files.write(file, ("<?xml version=\"1.0\" encoding=\"UTF-8\"?><" + base + " base=\"" + base + "\">\n"
+				+ "    <testSpezi>7.0</testSpezi>\n"
+				+ "</" + base + ">\n").getBytes(StandardCharsets.UTF_8));
+		double before = ConfigClass2.testSpezi;
+		ExecutorService pool = Executors.newFixedThreadPool(4);
+		try
+		{
+			CountDownLatch latch = new CountDownLatch(1);
+			List<Future<?>> futures = new ArrayList<>();
+			for (int i = 0; i < 4; i++)
+			{
+				futures.add(pool.submit(() -> {
+					latch.await();
+					ConfigRegistration.registerClass("deferred", ConfigClass2.class);
+					return null;
+				}));
+			}
+			latch.countDown();
+			for (Future<?> future : futures)
+			{
+				future.get(10, TimeUnit.SECONDS);
+			}
+			// the static field is set from the config file without initializing the whole category
+			assertThat(ConfigClass2.testSpezi).isEqualTo(7.0, within(1e-10));
+			assertThat(ConfigRegistration.getConfigClients()).contains("deferred");
+			ConfigValue<Double> value = ConfigRegistration.getConfigValue("deferred", ConfigClass2.class, "testSpezi",
+					"");
+			assertThat(value.getAsDouble()).isEqualTo(7.0, within(1e-10));
+		} finally
+		{
+			pool.shutdownNow();
+			ConfigClass2.testSpezi = before;
+			Files.deleteIfExists(file);
+		}
+	}
+
+
+	@Test
+	public void testSnapshot() throws IOException
+	{
+		ConfigClient cc = new ConfigClient("config", "snapshot");
+		cc.putClass(ConfigClass2.class);
+		cc.loadConfig();
+		cc.setUseSnapshot(true);
+		Path file = Paths.get("config", "snapshot.xml");
+		Path snapshotFile = ConfigSnapshotFile.getPath(file);
+		try
+		{
+			cc.getConfig().setProperty("testSpezi:CONF1", "12.0");
+			cc.applyConfig();
+			Assert.assertTrue(cc.saveCurrentConfig());
+
+			BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+			ConfigFileContent content = ConfigSnapshotFile.read(snapshotFile, attrs.lastModifiedTime(), attrs.size());
+			assertThat(content).isNotNull();
+			assertThat(content.getEntries()).hasSize(1);
+			assertThat(content.getEntries().get(0).clazz).isEqualTo(ConfigClass2.class);
+			assertThat(content.getEntries().get(0).nodeName).isEqualTo("testSpezi:CONF1");
+			assertThat(content.getEntries().get(0).value).isEqualTo("12.0");
+
+			// the snapshot is outdated as soon as the config file changes
+			Assert.assertNull(ConfigSnapshotFile.read(snapshotFile, attrs.lastModifiedTime(), attrs.size() + 1));
+		} finally
+		{
+			Files.deleteIfExists(file);
+			Files.deleteIfExists(snapshotFile);
+		}
+	}
+
+
+	@Test
+	public void testMetrics() throws Exception
+	{
+		ConfigAnnotationProcessor cap = new ConfigAnnotationProcessor("metrics");
+		cap.loadClass(ConfigClass2.class, false);
+		ConfigClass2 obj = new ConfigClass2();
+		cap.applyAll(obj);
+		assertThat(ConfigMetrics.getSnapshot("metrics").get(ConfigOperation.APPLY_ALL).getCount()).isZero();
+
+		ConfigMetrics.setEnabled(true);
+		try
+		{
+			cap.applyAll(obj);
+			cap.applySpezi(obj, "CONF1");
+			cap.applySpezi(obj, "CONF2");
+			cap.applyChanges(cap.loadConfiguration(cap.getEffectiveConfig()));
+			cap.applySpeziBulk(Collections.singletonList(obj), "CONF1");
+		} finally
+		{
+			ConfigMetrics.setEnabled(false);
+		}
+		Map<ConfigOperation, ConfigOperationStats> stats = ConfigMetrics.getSnapshot("metrics");
+		assertThat(stats.get(ConfigOperation.APPLY_ALL).getCount()).isEqualTo(1);
+		assertThat(stats.get(ConfigOperation.APPLY_SPEZI).getCount()).isEqualTo(2);
+		assertThat(stats.get(ConfigOperation.APPLY_CHANGES).getCount()).isEqualTo(1);
+		assertThat(stats.get(ConfigOperation.APPLY_BULK).getCount()).isEqualTo(1);
+		assertThat(stats.get(ConfigOperation.APPLY_SPEZI).getPercentileNanos(100))
+				.isEqualTo(stats.get(ConfigOperation.APPLY_SPEZI).getMaxNanos());
+		assertThat(ConfigMetrics.getFieldCount("metrics")).isPositive();
+
+		ObjectName name = new ObjectName(ConfigMetrics.OBJECT_NAME);
+		assertThat(ManagementFactory.getPlatformMBeanServer().getAttribute(name, "Categories"))
+				.isEqualTo(ConfigMetrics.getCategories().toArray(new String[0]));
+	}
+
+
+	@Test
+	public void testOverride()
+	{
+		ConfigClass1.testDouble = 1;
+		ConfigRegistration.overrideConfig(ConfigClass1.class, CATEGORY, "testDouble", "42");
+		Assert.assertEquals(42.0, ConfigClass1.testDouble, 1e-10);
+	}
+
+
+	@Test
+	public void testConfigValue()
+	{
+		ConfigClass1.testDouble = 1;
+		ConfigValue<Double> value = ConfigRegistration.getConfigValue(CATEGORY, ConfigClass1.class, "testDouble");
+		ConfigRegistration.overrideConfig(ConfigClass1.class, CATEGORY, "testDouble", "42");
+		assertThat(value.getAsDouble()).isEqualTo(42.0, within(1e-10));
+		ConfigRegistration.overrideConfig(ConfigClass1.class, CATEGORY, "testDouble", "3");
+		assertThat(value.get()).isEqualTo(3.0, within(1e-10));
+		assertThat(value.getAsInt()).isEqualTo(3);
+
+		ConfigValue<Boolean> boolValue = ConfigRegistration.getConfigValue(CATEGORY, ConfigClass1.class, "testBool");
+		assertThatThrownBy(boolValue::getAsDouble).isInstanceOf(IllegalStateException.class);
+		assertThatThrownBy(boolValue::getAsInt).isInstanceOf(IllegalStateException.class);
+	}
+
+
+	@Test
+	public void testChangeSet()
+	{
+		ConfigAnnotationProcessor cap = new ConfigAnnotationProcessor(CATEGORY);
+		cap.loadClass(ConfigClass2.class, false);
+		HierarchicalConfiguration config = cap.getEffectiveConfig();
+		assertThat(cap.loadConfiguration(config)).isEmpty();
+
+		config.setProperty("testSpezi:CONF1", "5.0");
+		List<ConfigChange> changes = cap.loadConfiguration(config);
+		assertThat(changes).hasSize(1);
+		assertThat(changes.get(0).getFieldName()).isEqualTo("testSpezi");
+		assertThat(changes.get(0).getSpezi()).isEqualTo("CONF1");
+		assertThat(changes.get(0).getNewValue()).isEqualTo("5.0");
+	}
+
+
+	@Test
+	public void testLoadFileStream() throws Exception
+	{
+		String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\"?><com.github.g3force base=\"com.github.g3force\">\n"
+				+ "    <configurable>\n"
+				+ "        <ConfigClass2>\n"
+				+ "            <testSpezi:CONF1> 5.0 </testSpezi:CONF1>\n"
+				+ "        </ConfigClass2>\n"
+				+ "    </configurable>\n"
+				+ "</com.github.g3force>\n";
+		ConfigAnnotationProcessor cap = new ConfigAnnotationProcessor(CATEGORY);
+		cap.loadClass(ConfigClass2.class, false);
+		List<ConfigChange> changes = cap.loadConfiguration(
+				new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)));
+		assertThat(changes).hasSize(1);
+		assertThat(changes.get(0).getClassName()).isEqualTo(ConfigClass2.class.getName());
+		assertThat(changes.get(0).getSpezi()).isEqualTo("CONF1");
+		assertThat(changes.get(0).getNewValue()).isEqualTo("5.0");
+	}
+
+
+	@Test
+	public void testDefValue()
+	{
+		ConfigAnnotationProcessor cap = new ConfigAnnotationProcessor("read");
+		cap.loadClass(ConfigClass4.class, false);
+		assertThat(ConfigClass4.testBoolFalse).isEqualTo(false);
+		assertThat(ConfigClass4.testBoolTrue).isEqualTo(true);
+		assertThat(ConfigClass4.testEnum.name()).isEqualTo("ONE");
+		assertThat(ConfigClass4.testEnumDefValue.name()).isEqualTo("TWO");
+		assertThat(ConfigClass4.testDouble).isEqualTo(1.0, within(1e-10));
+		assertThat(ConfigClass4.testDoubleWithDefault).isEqualTo(2.0, within(1e-10));
+		assertThat(ConfigClass4.testDefaultDifferent).isEqualTo(6.0);
+		assertThat(ConfigClass4.testStoredDifferent).isEqualTo(42.0, within(1e-10));
+	}
+
+
+	@Test
+	public void testGeneratedAccessor()
+	{
+		assertThat(ConfigClassIndex.resolve(ConfigClass6.class.getName())).isSameAs(ConfigClass6.class);
+		assertThat(ConfigClassIndex.resolve(ConfigClass6.class.getPackage().getName())).isNull();
+
+		int sets = ConfigClass6_ConfigAccessor.sets.get();
+		int gets = ConfigClass6_ConfigAccessor.gets.get();
+		ConfigAnnotationProcessor cap = new ConfigAnnotationProcessor("generated");
+		cap.loadClass(ConfigClass6.class, false);
+		assertThat(ConfigClass6.testGenerated).isEqualTo(4.0, within(1e-10));
+
+		ConfigClass6 obj = new ConfigClass6();
+		cap.applyAll(obj);
+		assertThat(obj.testGeneratedInstance).isEqualTo(5);
+
+		cap.overrideField(ConfigClass6.class, "testGenerated", "6.0");
+		assertThat(ConfigClass6.testGenerated).isEqualTo(6.0, within(1e-10));
+
+		// all values are set and read through the generated accessor, not through reflection
+		assertThat(ConfigClass6_ConfigAccessor.sets.get() - sets).isGreaterThanOrEqualTo(3);
+		assertThat(ConfigClass6_ConfigAccessor.gets.get()).isGreaterThan(gets);
+	}
+
+
+	@Test
+	public void testGeneratedAccessorName()
+	{
+		assertThat(ConfigAnnotationProcessor.getGeneratedAccessorName("a.Outer$In"))
+				.isEqualTo("a.Outer_1In_ConfigAccessor");
+		assertThat(ConfigAnnotationProcessor.getGeneratedAccessorName("a.Outer_In"))
+				.isEqualTo("a.Outer__In_ConfigAccessor");
+		assertThat(ConfigAnnotationProcessor.getGeneratedAccessorName("a_b.Outer"))
+				.isEqualTo("a_b.Outer_ConfigAccessor");
+
+		// an accessor of another class is ignored and reflection is used
+		ConfigAnnotationProcessor cap = new ConfigAnnotationProcessor("generated");
+		cap.loadClass(ConfigClass6.Foreign.class, false);
+		assertThat(ConfigClass6.Foreign.testForeign).isEqualTo(7);
+		assertThat(ConfigClass6_1Foreign_ConfigAccessor.sets.get()).isZero();
+	}
+
+
+	@Test
+	public void testParsedValueCopies()
+	{
+		ConfigAnnotationProcessor cap = new ConfigAnnotationProcessor("read");
+		cap.loadClass(ConfigClass4.class, false);
+		cap.applyAll();
+		int[] first = ConfigClass4.testArray;
+		cap.applyAll();
+		assertThat(ConfigClass4.testArray).containsExactly(1, 2, 3);
+		assertThat(ConfigClass4.testArray).isNotSameAs(first);
+
+		List<List<Integer>> list = new ArrayList<>(Collections.singletonList(new ArrayList<>(Arrays.asList(1, 2))));
+		Object listCopy = ConfigAnnotationProcessor.copyValue(list);
+		assertThat(listCopy).isEqualTo(list).isNotSameAs(list);
+		assertThat(((List<?>) listCopy).get(0)).isNotSameAs(list.get(0));
+
+		Map<String, Set<Integer>> map = new HashMap<>(Collections.singletonMap("a", new TreeSet<>(Arrays.asList(2, 1))));
+		Object mapCopy = ConfigAnnotationProcessor.copyValue(map);
+		assertThat(mapCopy).isEqualTo(map).isNotSameAs(map);
+		assertThat(((Map<?, ?>) mapCopy).get("a")).isNotSameAs(map.get("a"));
+
+		assertThat(ConfigAnnotationProcessor.copyValue(new StringBuilder()))
+				.isSameAs(ConfigAnnotationProcessor.UNCOPYABLE);
+	}
+}
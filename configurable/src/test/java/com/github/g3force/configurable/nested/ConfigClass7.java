@@ -0,0 +1,35 @@
+/*
+ * *********************************************************
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - Tigers Mannheim
+ * Project: TIGERS - Sumatra
+ * Date: Oct 18, 2026
+ * *********************************************************
+ */
+package com.github.g3force.configurable.nested;
+
+import com.github.g3force.configurable.Configurable;
+
+
+/**
+ * Configurable class in a sub package for values that need escaping in the config file
+ */
+public class ConfigClass7
+{
+	@Configurable(comment = "Document this field")
+	public static String testComma;
+
+	@Configurable(comment = "Document this field")
+	public static String testEntities;
+
+	@Configurable(comment = "Document this field")
+	public static String testLineBreaks;
+
+	@Configurable(comment = "Document this field", defValue = "x")
+	public static String testBlank;
+
+	@Configurable(comment = "Document this field")
+	public static String testPadded;
+
+	@Configurable(comment = "Document this field", spezis = { "", "CONF1" }, defValueSpezis = { "1", "2" })
+	public static String testSpeziString;
+}